@@ -1,21 +1,27 @@
 package com.blog.xblog.auth.service;
 
+import java.util.List;
+
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.blog.xblog.auth.dto.AuthResponse;
 import com.blog.xblog.auth.dto.LoginRequest;
 import com.blog.xblog.auth.dto.RegistrationRequest;
 import com.blog.xblog.common.exception.BadRequestException;
 import com.blog.xblog.common.mapper.UserMapper;
+import com.blog.xblog.common.security.CustomUserDetails;
 import com.blog.xblog.common.security.JwtTokenProvider;
 import com.blog.xblog.common.util.DateTimeUtil;
+import com.blog.xblog.common.util.EmailUtil;
 import com.blog.xblog.user.dto.UserResponse;
 import com.blog.xblog.user.entity.UserEntity;
+import com.blog.xblog.user.repository.UserIdentityView;
 import com.blog.xblog.user.repository.UserRepository;
 
 @Service
@@ -25,40 +31,53 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TransactionTemplate transactionTemplate;
 
     public AuthService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
                        AuthenticationManager authenticationManager,
-                       JwtTokenProvider jwtTokenProvider) {
+                       JwtTokenProvider jwtTokenProvider,
+                       PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
+    /**
+     * Hashes the password before the write transaction opens: SQLite has a single writer, so
+     * hashing inside it would hold every other write behind BCrypt. The transaction only checks
+     * for conflicts and inserts.
+     */
     public AuthResponse register(RegistrationRequest request) {
-        if (userRepository.findByUsername(request.username()).isPresent()) {
-            throw new BadRequestException("Username is already taken");
-        }
-
-        if (userRepository.findAll().stream().anyMatch(u -> u.getEmail().equalsIgnoreCase(request.email()))) {
-            throw new BadRequestException("Email is already in use");
-        }
-
-        UserEntity user = UserEntity.builder()
-                .username(request.username())
-                .email(request.email())
-                .password(passwordEncoder.encode(request.password()))
-                .createdAt(DateTimeUtil.now())
-                .updatedAt(DateTimeUtil.now())
-                .build();
-
-        user = userRepository.save(user);
-
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.username(), request.password())
-        );
+        String emailNormalized = EmailUtil.normalize(request.email());
+        String passwordHash = passwordEncoder.encode(request.password());
+
+        UserEntity user = transactionTemplate.execute(status -> {
+            List<UserIdentityView> conflicts = userRepository.findIdentityConflicts(request.username(), emailNormalized);
+
+            if (conflicts.stream().anyMatch(u -> u.username().equals(request.username()))) {
+                throw new BadRequestException("Username is already taken");
+            }
+
+            if (!conflicts.isEmpty()) {
+                throw new BadRequestException("Email is already in use");
+            }
+
+            return userRepository.save(UserEntity.builder()
+                    .username(request.username())
+                    .email(request.email())
+                    .emailNormalized(emailNormalized)
+                    .password(passwordHash)
+                    .createdAt(DateTimeUtil.now())
+                    .updatedAt(DateTimeUtil.now())
+                    .build());
+        });
+
+        CustomUserDetails principal = CustomUserDetails.fromUserEntity(user);
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                principal, null, principal.getAuthorities());
 
         String token = jwtTokenProvider.generateToken(authentication);
         UserResponse userResponse = UserMapper.toUserResponse(user);
@@ -5,8 +5,6 @@ import java.time.Instant;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
@@ -19,6 +17,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
+import com.blog.xblog.common.persistence.PooledId;
 import com.blog.xblog.user.entity.UserEntity;
 
 @Entity
@@ -26,7 +25,8 @@ import com.blog.xblog.user.entity.UserEntity;
     name = "blog",
     indexes = {
         @Index(name = "idx_blog_slug", columnList = "slug", unique = true),
-        @Index(name = "idx_blog_user", columnList = "user_id")
+        @Index(name = "idx_blog_user", columnList = "user_id"),
+        @Index(name = "idx_blog_created_id", columnList = "created_at, id")
     }
 )
 @NoArgsConstructor
@@ -38,7 +38,7 @@ import com.blog.xblog.user.entity.UserEntity;
 public class BlogEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId(sequence = "blog_seq")
     private Long id;
 
     @Column(nullable = false)
@@ -63,6 +63,13 @@ public class BlogEntity {
     @Column(name = "image_path")
     private String imagePath;
 
+    @Column(name = "image_content_type", length = 64)
+    private String imageContentType;
+
+    /** Comma-separated {@link com.blog.xblog.common.storage.ImageVariant} names built for the image. */
+    @Column(name = "image_variants", length = 64)
+    private String imageVariants;
+
     public BlogEntity(Long id,
                       String title,
                       String slug,
@@ -70,7 +77,9 @@ public class BlogEntity {
                       UserEntity author,
                       Instant createdAt,
                       Instant updatedAt,
-                      String imagePath) {
+                      String imagePath,
+                      String imageContentType,
+                      String imageVariants) {
         this.id = id;
         this.title = title;
         this.slug = slug;
@@ -79,10 +88,12 @@ public class BlogEntity {
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
         this.imagePath = imagePath;
+        this.imageContentType = imageContentType;
+        this.imageVariants = imageVariants;
     }
 
     public BlogEntity(String title, String slug, String content, UserEntity author) {
-        this(null, title, slug, content, author, Instant.now(), Instant.now(), null);
+        this(null, title, slug, content, author, Instant.now(), Instant.now(), null, null, null);
     }
 }
 
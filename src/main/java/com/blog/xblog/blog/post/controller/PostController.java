@@ -1,10 +1,9 @@
 package com.blog.xblog.blog.post.controller;
 
 import java.io.IOException;
-import java.util.List;
+import java.time.Instant;
+import java.util.stream.Stream;
 
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -16,21 +15,35 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.blog.xblog.blog.post.dto.PostCreateRequest;
+import com.blog.xblog.blog.post.dto.PostImportResponse;
 import com.blog.xblog.blog.post.dto.PostResponse;
+import com.blog.xblog.blog.post.dto.PostSummaryResponse;
 import com.blog.xblog.blog.post.dto.PostUpdateRequest;
+import com.blog.xblog.blog.post.service.PostExportService;
+import com.blog.xblog.blog.post.service.PostImportService;
 import com.blog.xblog.blog.post.service.PostService;
 import com.blog.xblog.common.dto.ApiResponse;
+import com.blog.xblog.common.dto.PageResponse;
 import com.blog.xblog.common.security.CustomUserDetails;
+import com.blog.xblog.common.storage.FileResponseWriter;
+import com.blog.xblog.common.storage.ImageVariant;
+import com.blog.xblog.common.storage.StoredImage;
+import com.blog.xblog.common.util.ETagUtil;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -39,9 +52,13 @@ import jakarta.validation.Valid;
 public class PostController {
 
     private final PostService postService;
+    private final PostExportService postExportService;
+    private final PostImportService postImportService;
 
-    public PostController(PostService postService) {
+    public PostController(PostService postService, PostExportService postExportService, PostImportService postImportService) {
         this.postService = postService;
+        this.postExportService = postExportService;
+        this.postImportService = postImportService;
     }
 
     @Operation(summary = "Create post (JSON)", description = "Create a new post as the authenticated user")
@@ -75,10 +92,15 @@ public class PostController {
         return ResponseEntity.status(HttpStatus.CREATED).body(body);
     }
 
-    @Operation(summary = "Get post by ID", description = "Returns a single post (public)")
+    @Operation(summary = "Get post by ID", description = "Returns a single post (public). Supports If-None-Match / If-Modified-Since (304).")
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<PostResponse>> getPost(
-            @Parameter(description = "Post ID") @PathVariable Long id) {
+            @Parameter(description = "Post ID") @PathVariable Long id,
+            WebRequest webRequest) {
+        Instant version = postService.getPostVersion(id);
+        if (webRequest.checkNotModified(ETagUtil.forVersion(id, version), version.toEpochMilli())) {
+            return null;
+        }
         PostResponse post = postService.getPost(id);
         ApiResponse<PostResponse> body = ApiResponse.<PostResponse>builder()
                 .success(true)
@@ -88,36 +110,77 @@ public class PostController {
         return ResponseEntity.ok(body);
     }
 
-    @Operation(summary = "Get post image", description = "Returns the post's featured image (public). 404 if no image.")
+    @Operation(summary = "Get post by slug", description = "Returns a single post by its URL slug (public)")
+    @GetMapping("/slug/{slug}")
+    public ResponseEntity<ApiResponse<PostResponse>> getPostBySlug(
+            @Parameter(description = "Post slug") @PathVariable String slug) {
+        PostResponse post = postService.getPostBySlug(slug);
+        ApiResponse<PostResponse> body = ApiResponse.<PostResponse>builder()
+                .success(true)
+                .message("Post details")
+                .data(post)
+                .build();
+        return ResponseEntity.ok(body);
+    }
+
+    @Operation(summary = "Get post image", description = "Returns the post's featured image (public). 404 if no image. Supports Range (206) and If-None-Match / If-Modified-Since (304).")
     @GetMapping("/{id}/image")
-    public ResponseEntity<Resource> getPostImage(
-            @Parameter(description = "Post ID") @PathVariable Long id) throws IOException {
-        Resource resource = postService.getPostImage(id);
-        if (resource == null || !resource.exists()) {
-            return ResponseEntity.notFound().build();
+    public void getPostImage(
+            @Parameter(description = "Post ID") @PathVariable Long id,
+            @Parameter(description = "original, medium (1024px) or thumbnail (320px); falls back to the original until the variant is built")
+            @RequestParam(defaultValue = "original") String size,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        StoredImage image = postService.getPostImage(id, ImageVariant.fromParam(size));
+        if (image == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
         }
-        String filename = resource.getFilename();
-        MediaType mediaType = filename != null && filename.toLowerCase().endsWith(".png")
-                ? MediaType.IMAGE_PNG
-                : MediaType.IMAGE_JPEG;
-        return ResponseEntity.ok()
-                .contentType(mediaType)
-                .header(HttpHeaders.CACHE_CONTROL, "max-age=86400")
-                .body(resource);
+        FileResponseWriter.write(image, "max-age=86400", request, response);
     }
 
-    @Operation(summary = "List posts", description = "Returns all posts (public)")
+    @Operation(summary = "List posts", description = "Returns a page of post summaries, newest first (public). Pass nextCursor to fetch the following page. Supports If-None-Match (304).")
     @GetMapping
-    public ResponseEntity<ApiResponse<List<PostResponse>>> listPosts() {
-        List<PostResponse> posts = postService.listPosts();
-        ApiResponse<List<PostResponse>> body = ApiResponse.<List<PostResponse>>builder()
+    public ResponseEntity<ApiResponse<PageResponse<PostSummaryResponse>>> listPosts(
+            @Parameter(description = "Opaque cursor from the previous page's nextCursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "20") int size) {
+        PageResponse<PostSummaryResponse> posts = postService.listPosts(cursor, size);
+        ApiResponse<PageResponse<PostSummaryResponse>> body = ApiResponse.<PageResponse<PostSummaryResponse>>builder()
                 .success(true)
                 .message("Posts list")
                 .data(posts)
                 .build();
+        String etag = ETagUtil.forContent(posts.getContent().stream()
+                .flatMap(p -> Stream.of(p.id(), p.updatedAt(), p.authorUsername(), p.imageUrl()))
+                .iterator());
+        return ResponseEntity.ok().eTag(etag).body(body);
+    }
+
+    @Operation(summary = "Import posts", description = "Creates posts as the authenticated user from a JSON array or NDJSON body, "
+            + "read as a stream and inserted in batches; invalid entries are skipped and reported by position")
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping(value = "/import", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<ApiResponse<PostImportResponse>> importPosts(
+            @Parameter(hidden = true) @AuthenticationPrincipal CustomUserDetails principal,
+            HttpServletRequest request) throws IOException {
+        PostImportResponse result = postImportService.importPosts(principal.getId(), request.getInputStream());
+        ApiResponse<PostImportResponse> body = ApiResponse.<PostImportResponse>builder()
+                .success(true)
+                .message(result.failed() == 0 ? "Posts imported" : "Posts imported with errors")
+                .data(result)
+                .build();
         return ResponseEntity.ok(body);
     }
 
+    @Operation(summary = "Export posts (NDJSON)", description = "Streams every post as newline-delimited JSON in id order (public)")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPosts() {
+        StreamingResponseBody body = postExportService::exportPosts;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @Operation(summary = "Update post (JSON)", description = "Update a post (author only)")
     @SecurityRequirement(name = "bearerAuth")
     @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -151,6 +214,22 @@ public class PostController {
         return ResponseEntity.ok(body);
     }
 
+    @Operation(summary = "Replace post image (raw body)", description = "Replace the featured image with the request body, a JPEG or PNG of at most 5MB (author only). The body is streamed to storage in one pass; the format is taken from its magic bytes, not the Content-Type.")
+    @SecurityRequirement(name = "bearerAuth")
+    @PutMapping(value = "/{id}/image", consumes = { MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE })
+    public ResponseEntity<ApiResponse<PostResponse>> replacePostImage(
+            @Parameter(description = "Post ID") @PathVariable Long id,
+            @Parameter(hidden = true) @AuthenticationPrincipal CustomUserDetails principal,
+            HttpServletRequest request) throws IOException {
+        PostResponse post = postService.replacePostImage(id, principal.getId(), request.getInputStream());
+        ApiResponse<PostResponse> body = ApiResponse.<PostResponse>builder()
+                .success(true)
+                .message("Post image updated")
+                .data(post)
+                .build();
+        return ResponseEntity.ok(body);
+    }
+
     @Operation(summary = "Delete post", description = "Delete a post (author only)")
     @SecurityRequirement(name = "bearerAuth")
     @DeleteMapping("/{id}")
@@ -0,0 +1,7 @@
+package com.blog.xblog.blog.post.dto;
+
+/** A post that was not imported; {@code index} is its zero-based position in the request body. */
+public record PostImportError(
+        long index,
+        String message
+) {}
@@ -0,0 +1,13 @@
+package com.blog.xblog.blog.post.dto;
+
+import java.time.Instant;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PastOrPresent;
+
+/** One post in a bulk import; {@code createdAt} keeps the original publication time of migrated posts. */
+public record PostImportRequest(
+        @NotBlank String title,
+        @NotBlank String content,
+        @PastOrPresent Instant createdAt
+) {}
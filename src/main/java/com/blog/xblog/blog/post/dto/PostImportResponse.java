@@ -0,0 +1,10 @@
+package com.blog.xblog.blog.post.dto;
+
+import java.util.List;
+
+/** Outcome of a bulk import; {@code errors} lists at most the first 100 of the {@code failed} posts. */
+public record PostImportResponse(
+        long imported,
+        long failed,
+        List<PostImportError> errors
+) {}
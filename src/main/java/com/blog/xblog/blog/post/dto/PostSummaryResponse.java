@@ -0,0 +1,14 @@
+package com.blog.xblog.blog.post.dto;
+
+import java.time.Instant;
+
+public record PostSummaryResponse(
+        Long id,
+        String title,
+        String slug,
+        Long authorId,
+        String authorUsername,
+        String imageUrl,
+        Instant createdAt,
+        Instant updatedAt
+) {}
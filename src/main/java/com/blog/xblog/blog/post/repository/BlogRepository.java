@@ -1,15 +1,87 @@
 package com.blog.xblog.blog.post.repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.blog.xblog.blog.entity.BlogEntity;
 
-public interface BlogRepository extends JpaRepository<BlogEntity, Long> {
+import jakarta.persistence.QueryHint;
 
-    Optional<BlogEntity> findBySlug(String slug);
+public interface BlogRepository extends JpaRepository<BlogEntity, Long>, BlogRepositoryCustom {
 
-    Optional<BlogEntity> findBySlugAndIdNot(String slug, Long id);
-}
+    @Query("select b.id from BlogEntity b where b.slug = :slug")
+    Optional<Long> findIdBySlug(@Param("slug") String slug);
+
+    @Query("""
+            select new com.blog.xblog.blog.post.repository.PostVersionView(b.updatedAt, a.updatedAt)
+            from BlogEntity b join b.author a where b.id = :id
+            """)
+    Optional<PostVersionView> findVersionById(@Param("id") Long id);
+
+    @Query("""
+            select new com.blog.xblog.blog.post.repository.PostImageView(b.imagePath, b.imageContentType, b.imageVariants)
+            from BlogEntity b where b.id = :id
+            """)
+    Optional<PostImageView> findImageById(@Param("id") Long id);
+
+    /**
+     * Records the resized variants of a post's image, only if the post still has that image; a
+     * zero result means the image was replaced or the post deleted while variants were built.
+     */
+    @Transactional
+    @Modifying
+    @Query("update BlogEntity b set b.imageVariants = :variants where b.id = :id and b.imagePath = :imagePath")
+    int updateImageVariants(@Param("id") Long id,
+                            @Param("imagePath") String imagePath,
+                            @Param("variants") String variants);
 
+    /**
+     * Slugs equal to {@code base} or of the form {@code base-*}, as one range scan on the slug
+     * index: every such slug sorts strictly between {@code base + "-"} and {@code base + "."}.
+     */
+    @Query("""
+            select b.slug from BlogEntity b
+            where b.slug = :base or (b.slug > concat(:base, '-') and b.slug < concat(:base, '.'))
+            """)
+    List<String> findSlugFamily(@Param("base") String base);
+
+    @Query("""
+            select new com.blog.xblog.blog.post.repository.PostSummaryView(
+                b.id, b.title, b.slug, a.id, a.username, b.imagePath, b.imageVariants, b.createdAt, b.updatedAt)
+            from BlogEntity b join b.author a
+            order by b.createdAt desc, b.id desc
+            """)
+    List<PostSummaryView> findSummaries(Limit limit);
+
+    @Query("""
+            select new com.blog.xblog.blog.post.repository.PostSummaryView(
+                b.id, b.title, b.slug, a.id, a.username, b.imagePath, b.imageVariants, b.createdAt, b.updatedAt)
+            from BlogEntity b join b.author a
+            where b.createdAt < :createdAt or (b.createdAt = :createdAt and b.id < :id)
+            order by b.createdAt desc, b.id desc
+            """)
+    List<PostSummaryView> findSummariesBefore(@Param("createdAt") Instant createdAt,
+                                              @Param("id") Long id,
+                                              Limit limit);
+
+    /**
+     * Forward-only cursor over every post with its author, for exports. Must be consumed
+     * inside a transaction and closed by the caller.
+     */
+    @Query("select b from BlogEntity b join fetch b.author order by b.id")
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    Stream<BlogEntity> streamAllWithAuthor();
+}
@@ -0,0 +1,10 @@
+package com.blog.xblog.blog.post.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BlogRepositoryCustom {
+
+    /** Every slug in the families of {@code bases} (see {@link BlogRepository#findSlugFamily}). */
+    List<String> findSlugFamilies(Collection<String> bases);
+}
@@ -0,0 +1,51 @@
+package com.blog.xblog.blog.post.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.blog.xblog.blog.entity.BlogEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * One indexed range scan per family, OR-ed into a single query. Bases are queried in groups so the
+ * expression stays well inside SQLite's expression depth limit.
+ */
+class BlogRepositoryImpl implements BlogRepositoryCustom {
+
+    private static final int BASES_PER_QUERY = 100;
+
+    private final EntityManager entityManager;
+
+    BlogRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<String> findSlugFamilies(Collection<String> bases) {
+        List<String> pending = new ArrayList<>(bases);
+        List<String> slugs = new ArrayList<>();
+        for (int from = 0; from < pending.size(); from += BASES_PER_QUERY) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<String> query = cb.createQuery(String.class);
+            Root<BlogEntity> blog = query.from(BlogEntity.class);
+            Path<String> slug = blog.get("slug");
+
+            List<Predicate> families = new ArrayList<>();
+            for (String base : pending.subList(from, Math.min(pending.size(), from + BASES_PER_QUERY))) {
+                families.add(cb.or(
+                        cb.equal(slug, base),
+                        cb.and(cb.greaterThan(slug, base + "-"), cb.lessThan(slug, base + "."))));
+            }
+            query.select(slug).where(cb.or(families.toArray(Predicate[]::new)));
+            slugs.addAll(entityManager.createQuery(query).getResultList());
+        }
+        return slugs;
+    }
+}
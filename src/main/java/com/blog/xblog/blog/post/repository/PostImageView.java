@@ -0,0 +1,11 @@
+package com.blog.xblog.blog.post.repository;
+
+/**
+ * Image columns of a post, read without touching {@code content}. All fields are null when the
+ * post has no image; {@code imageVariants} stays null until resized variants have been built.
+ */
+public record PostImageView(
+        String imagePath,
+        String imageContentType,
+        String imageVariants
+) {}
@@ -0,0 +1,19 @@
+package com.blog.xblog.blog.post.repository;
+
+import java.time.Instant;
+
+/**
+ * Row projection for post listings: everything but {@code content}, with the author
+ * columns resolved in the same query.
+ */
+public record PostSummaryView(
+        Long id,
+        String title,
+        String slug,
+        Long authorId,
+        String authorUsername,
+        String imagePath,
+        String imageVariants,
+        Instant createdAt,
+        Instant updatedAt
+) {}
@@ -0,0 +1,17 @@
+package com.blog.xblog.blog.post.repository;
+
+import java.time.Instant;
+
+/**
+ * Modification times behind a post response: the post's own and its author's, since the response
+ * carries the author's username.
+ */
+public record PostVersionView(
+        Instant updatedAt,
+        Instant authorUpdatedAt
+) {
+
+    public Instant latest() {
+        return authorUpdatedAt.isAfter(updatedAt) ? authorUpdatedAt : updatedAt;
+    }
+}
@@ -0,0 +1,36 @@
+package com.blog.xblog.blog.post.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import com.blog.xblog.blog.post.repository.PostSummaryView;
+import com.blog.xblog.common.exception.BadRequestException;
+
+/**
+ * Keyset position in the post listing ({@code created_at desc, id desc}), exchanged with
+ * clients as an opaque URL-safe token.
+ */
+public record PostCursor(Instant createdAt, Long id) {
+
+    public static PostCursor of(PostSummaryView row) {
+        return new PostCursor(row.createdAt(), row.id());
+    }
+
+    public String encode() {
+        String raw = createdAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PostCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(',');
+            return new PostCursor(
+                    Instant.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
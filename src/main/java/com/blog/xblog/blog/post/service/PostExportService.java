@@ -0,0 +1,54 @@
+package com.blog.xblog.blog.post.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blog.xblog.blog.entity.BlogEntity;
+import com.blog.xblog.blog.post.repository.BlogRepository;
+import com.blog.xblog.common.mapper.PostMapper;
+
+import jakarta.persistence.EntityManager;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Writes the full post corpus as NDJSON. Rows are pulled through a database cursor and the
+ * persistence context is cleared every batch, so memory stays flat however many posts exist.
+ */
+@Service
+public class PostExportService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final BlogRepository blogRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public PostExportService(BlogRepository blogRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.blogRepository = blogRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportPosts(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<BlogEntity> posts = blogRepository.streamAllWithAuthor()) {
+            Iterator<BlogEntity> iterator = posts.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(PostMapper.toPostResponse(iterator.next())));
+                out.write('\n');
+                if (++count % BATCH_SIZE == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        return count;
+    }
+}
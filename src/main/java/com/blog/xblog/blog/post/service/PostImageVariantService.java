@@ -0,0 +1,100 @@
+package com.blog.xblog.blog.post.service;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.blog.xblog.blog.post.repository.BlogRepository;
+import com.blog.xblog.common.storage.FileStorageService;
+import com.blog.xblog.common.storage.ImageVariant;
+import com.blog.xblog.media.service.MediaService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Builds resized variants of uploaded post images in the background. Work runs on virtual threads
+ * capped at {@code concurrency} at a time behind a bounded queue; when the queue is full the upload
+ * simply keeps serving its original, so variants never hold up or fail a request.
+ */
+@Service
+public class PostImageVariantService implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PostImageVariantService.class);
+
+    private final BlogRepository blogRepository;
+    private final FileStorageService fileStorageService;
+    private final MediaService mediaService;
+    private final ThreadPoolExecutor executor;
+    private final Timer processTimer;
+    private final Counter rejected;
+
+    public PostImageVariantService(BlogRepository blogRepository,
+                                   FileStorageService fileStorageService,
+                                   MediaService mediaService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.image.variants.concurrency:2}") int concurrency,
+                                   @Value("${app.image.variants.queue-capacity:256}") int queueCapacity) {
+        this.blogRepository = blogRepository;
+        this.fileStorageService = fileStorageService;
+        this.mediaService = mediaService;
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("image-variants-", 1).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("image.variants.queue.depth", executor, e -> e.getQueue().size())
+                .description("Uploaded images waiting for resized variants")
+                .register(meterRegistry);
+        this.processTimer = Timer.builder("image.variants.process")
+                .description("Time spent building the resized variants of one image")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("image.variants.rejected")
+                .description("Images left without variants because the queue was full")
+                .register(meterRegistry);
+    }
+
+    public void submit(Long postId, String imagePath) {
+        try {
+            executor.execute(() -> processTimer.record(() -> process(postId, imagePath)));
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            log.warn("Image variant queue full, post {} will serve its original image", postId);
+        }
+    }
+
+    void process(Long postId, String imagePath) {
+        Set<ImageVariant> created = EnumSet.noneOf(ImageVariant.class);
+        for (ImageVariant variant : ImageVariant.resized()) {
+            try {
+                if (fileStorageService.createVariant(imagePath, variant)) {
+                    created.add(variant);
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.warn("Failed to build {} variant of {} for post {}", variant.paramValue(), imagePath, postId, ex);
+            }
+        }
+        if (created.isEmpty()) {
+            return;
+        }
+        if (blogRepository.updateImageVariants(postId, imagePath, ImageVariant.formatList(created)) == 0) {
+            mediaService.discardVariantsIfUnreferenced(imagePath);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
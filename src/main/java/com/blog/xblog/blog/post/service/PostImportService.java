@@ -0,0 +1,218 @@
+package com.blog.xblog.blog.post.service;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blog.xblog.blog.entity.BlogEntity;
+import com.blog.xblog.blog.post.dto.PostImportError;
+import com.blog.xblog.blog.post.dto.PostImportRequest;
+import com.blog.xblog.blog.post.dto.PostImportResponse;
+import com.blog.xblog.blog.post.repository.BlogRepository;
+import com.blog.xblog.common.exception.NotFoundException;
+import com.blog.xblog.common.mapper.PostMapper;
+import com.blog.xblog.common.util.DateTimeUtil;
+import com.blog.xblog.common.util.SlugUtil;
+import com.blog.xblog.user.entity.UserEntity;
+import com.blog.xblog.user.service.UserService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.exc.JacksonIOException;
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Imports posts in bulk for one author, streaming them from a JSON array or NDJSON body so memory
+ * holds one chunk at a time however large the import. Each chunk of {@code chunkSize} posts is one
+ * transaction: its slugs are allocated with a single query up front, so its inserts are flushed
+ * together as JDBC batches. Invalid posts, including values of the wrong type, are skipped and
+ * reported by position; malformed JSON or any other failure stops the import, keeping and
+ * reporting the posts already saved.
+ */
+@Service
+public class PostImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostImportService.class);
+
+    static final int MAX_REPORTED_ERRORS = 100;
+    private static final int SLUG_ATTEMPTS = 3;
+
+    private final BlogRepository blogRepository;
+    private final UserService userService;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public PostImportService(BlogRepository blogRepository,
+                             UserService userService,
+                             EntityManager entityManager,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.posts.import.chunk-size:500}") int chunkSize) {
+        this.blogRepository = blogRepository;
+        this.userService = userService;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public PostImportResponse importPosts(Long authorId, InputStream body) {
+        if (userService.findById(authorId).isEmpty()) {
+            throw new NotFoundException("Author not found with id " + authorId);
+        }
+
+        ImportResult result = new ImportResult();
+        List<IndexedPost> chunk = new ArrayList<>(chunkSize);
+        long position = 0;
+        try (MappingIterator<PostImportRequest> posts = objectMapper.readerFor(PostImportRequest.class).readValues(body)) {
+            for (; posts.hasNextValue(); position++) {
+                PostImportRequest post;
+                try {
+                    post = posts.nextValue();
+                } catch (DatabindException ex) {
+                    result.fail(position, "Not a valid post: " + ex.getOriginalMessage());
+                    continue;
+                }
+                String problem = validate(post);
+                if (problem != null) {
+                    result.fail(position, problem);
+                    continue;
+                }
+                chunk.add(new IndexedPost(position, post));
+                if (chunk.size() == chunkSize) {
+                    insertChunk(authorId, chunk, result);
+                    chunk.clear();
+                }
+            }
+        } catch (JacksonIOException ex) {
+            result.fail(position, "Reading the request failed, import stopped: " + ex.getOriginalMessage());
+        } catch (JacksonException ex) {
+            result.fail(position, "Malformed JSON, import stopped: " + ex.getOriginalMessage());
+        } catch (RuntimeException ex) {
+            log.warn("Post import for author {} stopped at post {}", authorId, position, ex);
+            result.fail(position, "Import stopped: " + causeOf(ex));
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(authorId, chunk, result);
+        }
+        return result.toResponse();
+    }
+
+    private String validate(PostImportRequest post) {
+        if (post == null) {
+            return "Expected a post object";
+        }
+        Set<ConstraintViolation<PostImportRequest>> violations = validator.validate(post);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        ConstraintViolation<PostImportRequest> violation = violations.iterator().next();
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+
+    /**
+     * Inserts one chunk in its own transaction. If that keeps failing, the chunk is inserted post
+     * by post so only the posts the database rejects are reported. Never throws, so posts already
+     * committed are always counted.
+     */
+    private void insertChunk(Long authorId, List<IndexedPost> chunk, ImportResult result) {
+        try {
+            result.imported += insertWithSlugRetry(authorId, chunk);
+        } catch (RuntimeException ex) {
+            log.debug("Import chunk of {} posts failed, retrying post by post", chunk.size(), ex);
+            for (IndexedPost post : chunk) {
+                try {
+                    result.imported += insertWithSlugRetry(authorId, List.of(post));
+                } catch (RuntimeException postEx) {
+                    result.fail(post.index(), "Could not be saved: " + causeOf(postEx));
+                }
+            }
+        }
+    }
+
+    /**
+     * A concurrent writer can take one of the allocated slugs first; the unique index then rejects
+     * the insert, which is retried with fresh slugs.
+     */
+    private int insertWithSlugRetry(Long authorId, List<IndexedPost> posts) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> insert(authorId, posts));
+            } catch (DataIntegrityViolationException ex) {
+                if (attempt >= SLUG_ATTEMPTS) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private int insert(Long authorId, List<IndexedPost> posts) {
+        UserEntity author = entityManager.getReference(UserEntity.class, authorId);
+        Set<String> bases = new HashSet<>();
+        for (IndexedPost post : posts) {
+            bases.add(post.baseSlug());
+        }
+        Map<String, SlugFamily> families = SlugFamily.group(bases, blogRepository.findSlugFamilies(bases));
+
+        Instant now = DateTimeUtil.now();
+        List<BlogEntity> entities = new ArrayList<>(posts.size());
+        for (IndexedPost post : posts) {
+            String slug = families.get(post.baseSlug()).claim();
+            entities.add(PostMapper.toBlogEntity(post.request(), author, slug, now));
+        }
+        blogRepository.saveAll(entities);
+        entityManager.flush();
+        return entities.size();
+    }
+
+    private static String causeOf(Throwable ex) {
+        return NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+    }
+
+    private record IndexedPost(long index, PostImportRequest request, String baseSlug) {
+
+        IndexedPost(long index, PostImportRequest request) {
+            this(index, request, SlugUtil.toSlug(request.title()));
+        }
+    }
+
+    private static final class ImportResult {
+
+        private long imported;
+        private long failed;
+        private final List<PostImportError> errors = new ArrayList<>();
+
+        private void fail(long index, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new PostImportError(index, message));
+            }
+        }
+
+        private PostImportResponse toResponse() {
+            return new PostImportResponse(imported, failed, List.copyOf(errors));
+        }
+    }
+}
@@ -1,71 +1,119 @@
 package com.blog.xblog.blog.post.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.blog.xblog.blog.entity.BlogEntity;
 import com.blog.xblog.blog.post.dto.PostCreateRequest;
 import com.blog.xblog.blog.post.dto.PostResponse;
+import com.blog.xblog.blog.post.dto.PostSummaryResponse;
 import com.blog.xblog.blog.post.dto.PostUpdateRequest;
 import com.blog.xblog.blog.post.repository.BlogRepository;
+import com.blog.xblog.blog.post.repository.PostImageView;
+import com.blog.xblog.blog.post.repository.PostSummaryView;
+import com.blog.xblog.blog.post.repository.PostVersionView;
+import com.blog.xblog.common.dto.PageResponse;
 import com.blog.xblog.common.exception.NotFoundException;
 import com.blog.xblog.common.mapper.PostMapper;
 import com.blog.xblog.common.storage.FileStorageService;
+import com.blog.xblog.common.storage.ImageVariant;
+import com.blog.xblog.common.storage.StagedUpload;
+import com.blog.xblog.common.storage.StoredImage;
 import com.blog.xblog.common.util.DateTimeUtil;
 import com.blog.xblog.common.util.SlugUtil;
+import com.blog.xblog.media.service.MediaService;
 import com.blog.xblog.user.entity.UserEntity;
 import com.blog.xblog.user.service.UserService;
 
 @Service
 public class PostService {
 
+    private static final Logger log = LoggerFactory.getLogger(PostService.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int SLUG_ATTEMPTS = 3;
+
     private final BlogRepository blogRepository;
     private final UserService userService;
     private final FileStorageService fileStorageService;
+    private final MediaService mediaService;
+    private final PostImageVariantService imageVariantService;
+    private final CacheManager cacheManager;
+    private final PostWriteBatcher postWrites;
+    private final TransactionTemplate readOnlyTransactionTemplate;
 
-    public PostService(BlogRepository blogRepository, UserService userService, FileStorageService fileStorageService) {
+    public PostService(BlogRepository blogRepository,
+                       UserService userService,
+                       FileStorageService fileStorageService,
+                       MediaService mediaService,
+                       PostImageVariantService imageVariantService,
+                       CacheManager cacheManager,
+                       PostWriteBatcher postWrites,
+                       PlatformTransactionManager transactionManager) {
         this.blogRepository = blogRepository;
         this.userService = userService;
         this.fileStorageService = fileStorageService;
+        this.mediaService = mediaService;
+        this.imageVariantService = imageVariantService;
+        this.cacheManager = cacheManager;
+        this.postWrites = postWrites;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
     }
 
-    @Transactional
     public PostResponse createPost(Long authorId, PostCreateRequest request) {
         return createPost(authorId, request, null);
     }
 
-    @Transactional
     public PostResponse createPost(Long authorId, PostCreateRequest request, MultipartFile image) {
-        UserEntity author = userService.findById(authorId)
-                .orElseThrow(() -> new NotFoundException("Author not found with id " + authorId));
-
-        String baseSlug = SlugUtil.toSlug(request.title());
-        String uniqueSlug = ensureUniqueSlug(baseSlug);
-
-        BlogEntity entity = PostMapper.toBlogEntity(
-                request,
-                author,
-                uniqueSlug,
-                DateTimeUtil.now(),
-                DateTimeUtil.now()
-        );
-
-        entity = blogRepository.save(entity);
-
-        if (image != null && !image.isEmpty()) {
-            String relativePath = fileStorageService.savePostImage(entity.getId(), image);
-            entity.setImagePath(relativePath);
-            entity = blogRepository.save(entity);
-        }
+        StagedUpload upload = fileStorageService.stage(image);
+        return withStoredImage(upload, imagePath -> inTransactionWithSlugRetry(() -> {
+            UserEntity author = userService.findById(authorId)
+                    .orElseThrow(() -> new NotFoundException("Author not found with id " + authorId));
+
+            BlogEntity entity = PostMapper.toBlogEntity(
+                    request,
+                    author,
+                    allocateSlug(SlugUtil.toSlug(request.title()), null),
+                    DateTimeUtil.now(),
+                    DateTimeUtil.now()
+            );
+
+            if (imagePath != null) {
+                entity.setImagePath(imagePath);
+                entity.setImageContentType(upload.contentType());
+            }
+
+            entity = blogRepository.saveAndFlush(entity);
 
-        return PostMapper.toPostResponse(entity);
+            if (imagePath != null) {
+                Long postId = entity.getId();
+                afterCommit(() -> imageVariantService.submit(postId, imagePath));
+            }
+
+            return PostMapper.toPostResponse(entity);
+        }));
     }
 
     @Transactional(readOnly = true)
@@ -74,63 +122,155 @@ public class PostService {
         return PostMapper.toPostResponse(findPostOrThrow(id));
     }
 
+    /**
+     * Last modification time of a post or its author, whichever is later, cached apart from the
+     * post body so conditional GETs can be answered without loading or deserializing the post.
+     */
+    @Cacheable(cacheNames = "postVersions", key = "#id")
+    public Instant getPostVersion(Long id) {
+        return blogRepository.findVersionById(id)
+                .map(PostVersionView::latest)
+                .orElseThrow(() -> new NotFoundException("Post not found with id " + id));
+    }
+
+    /**
+     * Resolves the slug through the {@code postSlugs} cache and serves the post from the same
+     * {@code posts} entry as {@link #getPost}, so a warm lookup runs no queries.
+     */
+    public PostResponse getPostBySlug(String slug) {
+        Long id = resolvePostId(slug);
+
+        Cache posts = cacheManager.getCache("posts");
+        PostResponse cached = posts != null ? posts.get(id, PostResponse.class) : null;
+        if (cached != null) {
+            return cached;
+        }
+        PostResponse post = readOnlyTransactionTemplate.execute(status -> PostMapper.toPostResponse(findPostOrThrow(id)));
+        if (posts != null) {
+            posts.put(id, post);
+        }
+        return post;
+    }
+
+    /**
+     * Keyset-paginated listing, newest first. Each page costs one indexed range scan
+     * regardless of how deep the client has paged; totals are deliberately not computed.
+     */
     @Transactional(readOnly = true)
-    public List<PostResponse> listPosts() {
-        return PostMapper.toPostResponses(blogRepository.findAll());
+    public PageResponse<PostSummaryResponse> listPosts(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<PostSummaryView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = blogRepository.findSummaries(limit);
+        } else {
+            PostCursor position = PostCursor.decode(cursor);
+            rows = blogRepository.findSummariesBefore(position.createdAt(), position.id(), limit);
+        }
+
+        boolean last = rows.size() <= pageSize;
+        List<PostSummaryView> page = last ? rows : rows.subList(0, pageSize);
+
+        return PageResponse.<PostSummaryResponse>builder()
+                .content(PostMapper.toPostSummaryResponses(page))
+                .pageSize(pageSize)
+                .last(last)
+                .nextCursor(last ? null : PostCursor.of(page.get(page.size() - 1)).encode())
+                .build();
     }
 
-    @Transactional
-    @CacheEvict(cacheNames = "posts", key = "#id")
+    @CacheEvict(cacheNames = { "posts", "postVersions" }, key = "#id")
     public PostResponse updatePost(Long id, Long authorId, PostUpdateRequest request) {
         return updatePost(id, authorId, request, null);
     }
 
-    @Transactional
-    @CacheEvict(cacheNames = "posts", key = "#id")
+    @CacheEvict(cacheNames = { "posts", "postVersions" }, key = "#id")
     public PostResponse updatePost(Long id, Long authorId, PostUpdateRequest request, MultipartFile image) {
-        BlogEntity post = findPostOrThrow(id);
+        StagedUpload upload = fileStorageService.stage(image);
+        return withStoredImage(upload, imagePath -> inTransactionWithSlugRetry(() -> {
+            BlogEntity post = findPostOrThrow(id);
 
-        if (!post.getAuthor().getId().equals(authorId)) {
-            throw new NotFoundException("Post not found");
-        }
+            if (!post.getAuthor().getId().equals(authorId)) {
+                throw new NotFoundException("Post not found");
+            }
 
-        if (image != null && !image.isEmpty()) {
-            fileStorageService.deleteByRelativePath(post.getImagePath());
-            String relativePath = fileStorageService.savePostImage(id, image);
-            post.setImagePath(relativePath);
-        }
+            PostMapper.applyUpdate(request, post, DateTimeUtil.now());
 
-        PostMapper.applyUpdate(request, post, DateTimeUtil.now());
+            if (request.title() != null && !request.title().isBlank()) {
+                String previousSlug = post.getSlug();
+                post.setSlug(allocateSlug(SlugUtil.toSlug(post.getTitle()), previousSlug));
+                if (!post.getSlug().equals(previousSlug)) {
+                    evictSlugAfterCommit(previousSlug);
+                }
+            }
 
-        if (request.title() != null && !request.title().isBlank()) {
-            post.setSlug(ensureUniqueSlugExcluding(SlugUtil.toSlug(post.getTitle()), id));
-        }
+            if (imagePath != null) {
+                replaceImage(post, imagePath, upload.contentType());
+            }
 
-        post = blogRepository.save(post);
-        return PostMapper.toPostResponse(post);
+            post = blogRepository.saveAndFlush(post);
+            return PostMapper.toPostResponse(post);
+        }));
     }
 
-    @Transactional
-    @CacheEvict(cacheNames = "posts", key = "#id")
+    /** Replaces the post's image with one streamed straight from the request body. */
+    @CacheEvict(cacheNames = { "posts", "postVersions" }, key = "#id")
+    public PostResponse replacePostImage(Long id, Long authorId, InputStream body) {
+        StagedUpload upload = fileStorageService.stage(body);
+        return withStoredImage(upload, imagePath -> postWrites.write(() -> {
+            BlogEntity post = findPostOrThrow(id);
+
+            if (!post.getAuthor().getId().equals(authorId)) {
+                throw new NotFoundException("Post not found");
+            }
+
+            replaceImage(post, imagePath, upload.contentType());
+            post.setUpdatedAt(DateTimeUtil.now());
+            post = blogRepository.saveAndFlush(post);
+            return PostMapper.toPostResponse(post);
+        }));
+    }
+
+    /** Evicts once the delete has committed, so the cache round trips never hold the write transaction open. */
+    @CacheEvict(cacheNames = { "posts", "postVersions" }, key = "#id")
     public void deletePost(Long id, Long authorId) {
-        BlogEntity post = findPostOrThrow(id);
+        postWrites.write(() -> {
+            BlogEntity post = findPostOrThrow(id);
 
-        if (!post.getAuthor().getId().equals(authorId)) {
-            throw new NotFoundException("Post not found");
-        }
+            if (!post.getAuthor().getId().equals(authorId)) {
+                throw new NotFoundException("Post not found");
+            }
 
-        fileStorageService.deleteByRelativePath(post.getImagePath());
-        blogRepository.delete(post);
+            blogRepository.delete(post);
+            String imagePath = post.getImagePath();
+            afterCommit(() -> mediaService.releaseLater(imagePath));
+            evictSlugAfterCommit(post.getSlug());
+            return null;
+        });
     }
 
-    @Transactional(readOnly = true)
-    public Resource getPostImage(Long id) throws IOException {
-        BlogEntity post = findPostOrThrow(id);
-        String imagePath = post.getImagePath();
-        if (imagePath == null || imagePath.isBlank()) {
+    public StoredImage getPostImage(Long id) throws IOException {
+        return getPostImage(id, ImageVariant.ORIGINAL);
+    }
+
+    /**
+     * Resolves the post's image from its image columns only; null if the post has no image or the
+     * file is missing. A resized variant that has not been built (yet) falls back to the original.
+     */
+    public StoredImage getPostImage(Long id, ImageVariant variant) throws IOException {
+        PostImageView image = blogRepository.findImageById(id)
+                .orElseThrow(() -> new NotFoundException("Post not found with id " + id));
+        if (image.imagePath() == null || image.imagePath().isBlank()) {
             return null;
         }
-        return fileStorageService.getResource(imagePath);
+        if (variant != ImageVariant.ORIGINAL && ImageVariant.parseList(image.imageVariants()).contains(variant)) {
+            StoredImage resized = fileStorageService.getImage(variant.pathFor(image.imagePath()), image.imageContentType());
+            if (resized != null) {
+                return resized;
+            }
+        }
+        return fileStorageService.getImage(image.imagePath(), image.imageContentType());
     }
 
     private BlogEntity findPostOrThrow(Long id) {
@@ -138,22 +278,113 @@ public class PostService {
                 .orElseThrow(() -> new NotFoundException("Post not found with id " + id));
     }
 
-    private String ensureUniqueSlug(String baseSlug) {
-        String slug = baseSlug;
-        int counter = 1;
-        while (blogRepository.findBySlug(slug).isPresent()) {
-            slug = baseSlug + "-" + counter++;
+    private Long resolvePostId(String slug) {
+        Cache slugs = cacheManager.getCache("postSlugs");
+        Long cached = slugs != null ? slugs.get(slug, Long.class) : null;
+        if (cached != null) {
+            return cached;
         }
-        return slug;
+        Long id = blogRepository.findIdBySlug(slug)
+                .orElseThrow(() -> new NotFoundException("Post not found with slug " + slug));
+        if (slugs != null) {
+            slugs.put(slug, id);
+        }
+        return id;
     }
 
-    private String ensureUniqueSlugExcluding(String baseSlug, Long excludeId) {
-        String slug = baseSlug;
-        int counter = 1;
-        while (blogRepository.findBySlugAndIdNot(slug, excludeId).isPresent()) {
-            slug = baseSlug + "-" + counter++;
+    /**
+     * Drops a slug mapping once the surrounding transaction commits, so a concurrent reader cannot
+     * re-cache the old mapping from not-yet-committed state.
+     */
+    private void evictSlugAfterCommit(String slug) {
+        Cache slugs = cacheManager.getCache("postSlugs");
+        if (slugs != null) {
+            new TransactionAwareCacheDecorator(slugs).evict(slug);
         }
-        return slug;
+    }
+
+    /**
+     * Publishes a staged image and takes a reference to it, then runs the post write that links
+     * it. All file work happens before the write transaction opens, so the transaction only
+     * touches the row; if the write fails, the reference is released so the image cannot leak.
+     */
+    private PostResponse withStoredImage(StagedUpload upload, Function<String, PostResponse> write) {
+        try {
+            String imagePath = upload != null ? mediaService.store(upload) : null;
+            try {
+                return write.apply(imagePath);
+            } catch (RuntimeException ex) {
+                mediaService.release(imagePath);
+                throw ex;
+            }
+        } finally {
+            fileStorageService.discard(upload);
+        }
+    }
+
+    /** Points the post at a new image; the old one is released and variants built once the write commits. */
+    private void replaceImage(BlogEntity post, String imagePath, String contentType) {
+        Long id = post.getId();
+        String previousImage = post.getImagePath();
+        post.setImagePath(imagePath);
+        post.setImageContentType(contentType);
+        post.setImageVariants(null);
+        afterCommit(() -> {
+            mediaService.releaseLater(previousImage);
+            imageVariantService.submit(id, imagePath);
+        });
+    }
+
+    /**
+     * Runs image side effects once the surrounding transaction commits: variant workers then read
+     * committed image paths, and a rolled-back write never releases the image it still references.
+     * Without a transaction the action runs straight away. The write has already succeeded, so a
+     * failing side effect is logged rather than reported to the caller.
+     */
+    private void afterCommit(Runnable action) {
+        Runnable guarded = () -> {
+            try {
+                action.run();
+            } catch (RuntimeException ex) {
+                log.warn("Post image cleanup after commit failed", ex);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            guarded.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                guarded.run();
+            }
+        });
+    }
+
+    /**
+     * Runs a slug-allocating write through the group-commit writer. Allocation reads before it
+     * inserts, so a concurrent writer can claim the same slug in between; the unique index rejects
+     * the loser, which retries in a fresh transaction and sees the winner's slug.
+     */
+    private <T> T inTransactionWithSlugRetry(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return postWrites.write(work);
+            } catch (DataIntegrityViolationException ex) {
+                if (attempt >= SLUG_ATTEMPTS) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns {@code baseSlug} if free, otherwise {@code baseSlug-N} with the smallest free N,
+     * using a single query for every slug in the family. {@code ownSlug} (the post's current
+     * slug on update) counts as free.
+     */
+    private String allocateSlug(String baseSlug, String ownSlug) {
+        return SlugFamily.of(baseSlug, blogRepository.findSlugFamily(baseSlug), ownSlug).claim();
     }
 }
 
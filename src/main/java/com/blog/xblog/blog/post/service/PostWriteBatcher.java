@@ -0,0 +1,179 @@
+package com.blog.xblog.blog.post.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Group commit for post writes. SQLite has a single writer, so concurrent writes would otherwise
+ * queue for the write connection and commit one by one. Here they are handed to one worker thread,
+ * which collects whatever arrives within {@code window} (up to {@code maxBatch} writes) and runs
+ * them in a single transaction, then completes each caller.
+ *
+ * <p>If any write in a batch fails, the whole batch rolls back and every write is retried in its
+ * own transaction, so one caller's error never fails or commits on behalf of another. Writes run
+ * inline when group commit is disabled or the caller is already inside a transaction.
+ */
+@Service
+public class PostWriteBatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PostWriteBatcher.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final BlockingQueue<PendingWrite<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread worker;
+    private final DistributionSummary batchSize;
+    private final Counter fallbacks;
+    private volatile boolean running = true;
+
+    public PostWriteBatcher(PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.posts.group-commit.enabled:true}") boolean enabled,
+                            @Value("${app.posts.group-commit.window:2ms}") Duration window,
+                            @Value("${app.posts.group-commit.max-batch:64}") int maxBatch) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.windowNanos = window.toNanos();
+        this.maxBatch = Math.max(1, maxBatch);
+        this.batchSize = DistributionSummary.builder("posts.write.batch.size")
+                .description("Post writes committed together in one transaction")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("posts.write.batch.fallbacks")
+                .description("Batches rolled back and retried write by write after one failed")
+                .register(meterRegistry);
+        this.worker = enabled ? Thread.ofPlatform().name("post-writes").daemon().start(this::run) : null;
+    }
+
+    /** Runs {@code work} in a write transaction, possibly shared with other callers' writes. */
+    public <T> T write(Supplier<T> work) {
+        if (worker == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transactionTemplate.execute(status -> work.get());
+        }
+        PendingWrite<T> pending = new PendingWrite<>(work);
+        queue.add(pending);
+        if (!running && queue.remove(pending)) {
+            throw new IllegalStateException("Post writer is shut down");
+        }
+        try {
+            return pending.result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /** Commits writes that are already queued, then stops the worker. */
+    @Override
+    public void close() {
+        running = false;
+        if (worker == null) {
+            return;
+        }
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<PendingWrite<?>> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                PendingWrite<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    PendingWrite<?> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Post writer interrupted, committing {} queued writes and stopping", batch.size() + queue.size());
+                running = false;
+            }
+            queue.drainTo(batch, maxBatch - batch.size());
+            commit(batch);
+            batch.clear();
+        }
+        while (queue.drainTo(batch, maxBatch) > 0) {
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void commit(List<PendingWrite<?>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSize.record(batch.size());
+        if (batch.size() > 1) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> batch.forEach(PendingWrite::run));
+                batch.forEach(PendingWrite::complete);
+                return;
+            } catch (RuntimeException | Error ex) {
+                fallbacks.increment();
+                log.debug("Batch of {} post writes rolled back, retrying one by one", batch.size(), ex);
+            }
+        }
+        for (PendingWrite<?> pending : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> pending.run());
+                pending.complete();
+            } catch (RuntimeException | Error ex) {
+                pending.result.completeExceptionally(ex);
+            }
+        }
+    }
+
+    /** A caller's write; its value is only handed back once the transaction that produced it commits. */
+    private static final class PendingWrite<T> {
+
+        private final Supplier<T> work;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+
+        private PendingWrite(Supplier<T> work) {
+            this.work = work;
+        }
+
+        private void run() {
+            value = work.get();
+        }
+
+        private void complete() {
+            result.complete(value);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.blog.xblog.blog.post.service;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The slugs taken in one family ({@code base}, {@code base-1}, {@code base-2}, ...), from which the
+ * free slug with the smallest suffix is handed out. Claimed slugs count as taken, so a family can
+ * allocate several slugs before any of them is written.
+ */
+final class SlugFamily {
+
+    private final String base;
+    private final BitSet takenSuffixes = new BitSet();
+    private boolean baseTaken;
+
+    private SlugFamily(String base) {
+        this.base = base;
+    }
+
+    /** Builds the family from existing slugs; {@code ownSlug} (a post's current slug on update) counts as free. */
+    static SlugFamily of(String base, Iterable<String> slugs, String ownSlug) {
+        SlugFamily family = new SlugFamily(base);
+        for (String slug : slugs) {
+            if (!slug.equals(ownSlug)) {
+                family.markTaken(slug);
+            }
+        }
+        return family;
+    }
+
+    /**
+     * Sorts the slugs of several families, as returned together by one query, into a family per
+     * base. A slug belongs to its own base and to the base left after removing its last
+     * {@code -suffix}, when those are among {@code bases}.
+     */
+    static Map<String, SlugFamily> group(Set<String> bases, Iterable<String> slugs) {
+        Map<String, SlugFamily> families = new HashMap<>();
+        for (String base : bases) {
+            families.put(base, new SlugFamily(base));
+        }
+        for (String slug : slugs) {
+            SlugFamily own = families.get(slug);
+            if (own != null) {
+                own.markTaken(slug);
+            }
+            int dash = slug.lastIndexOf('-');
+            SlugFamily parent = dash > 0 ? families.get(slug.substring(0, dash)) : null;
+            if (parent != null) {
+                parent.markTaken(slug);
+            }
+        }
+        return families;
+    }
+
+    /** Returns {@code base} if free, otherwise {@code base-N} with the smallest free N, and marks it taken. */
+    String claim() {
+        if (!baseTaken) {
+            baseTaken = true;
+            return base;
+        }
+        int suffix = takenSuffixes.nextClearBit(1);
+        takenSuffixes.set(suffix);
+        return base + "-" + suffix;
+    }
+
+    private void markTaken(String slug) {
+        if (slug.equals(base)) {
+            baseTaken = true;
+            return;
+        }
+        int suffix = parseSuffix(slug, base.length() + 1);
+        if (suffix > 0) {
+            takenSuffixes.set(suffix);
+        }
+    }
+
+    /** Positive integer after the family prefix, or -1 for slugs like {@code base-intro} or {@code base-01}. */
+    private static int parseSuffix(String slug, int start) {
+        int length = slug.length() - start;
+        if (length < 1 || length > 9 || slug.charAt(start) == '0') {
+            return -1;
+        }
+        for (int i = start; i < slug.length(); i++) {
+            char c = slug.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+        return Integer.parseInt(slug, start, slug.length(), 10);
+    }
+}
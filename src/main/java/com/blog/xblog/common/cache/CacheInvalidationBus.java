@@ -0,0 +1,20 @@
+package com.blog.xblog.common.cache;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Broadcasts cache evictions between nodes so every node can drop its local copy.
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * Announces that {@code key} of {@code cacheName} is stale; a {@code null} key means the
+     * whole cache.
+     */
+    void publish(String cacheName, Object key);
+
+    /**
+     * Registers a handler receiving {@code (cacheName, key)} for every announced invalidation.
+     */
+    void subscribe(BiConsumer<String, Object> handler);
+}
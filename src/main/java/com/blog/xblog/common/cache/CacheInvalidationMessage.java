@@ -0,0 +1,45 @@
+package com.blog.xblog.common.cache;
+
+/**
+ * Wire format of an invalidation: {@code origin|cacheName|keyType|key}. Only key types the
+ * application caches by are encoded; anything else, or a {@code null} key, is sent as a
+ * whole-cache clear.
+ */
+public record CacheInvalidationMessage(String origin, String cacheName, Object key) {
+
+    private static final char SEPARATOR = '|';
+    private static final String CLEAR = "*";
+
+    public String encode() {
+        String keyType;
+        String keyValue = "";
+        if (key instanceof Long) {
+            keyType = "L";
+        } else if (key instanceof Integer) {
+            keyType = "I";
+        } else if (key instanceof String) {
+            keyType = "S";
+        } else {
+            keyType = CLEAR;
+        }
+        if (!CLEAR.equals(keyType)) {
+            keyValue = key.toString();
+        }
+        return origin + SEPARATOR + cacheName + SEPARATOR + keyType + SEPARATOR + keyValue;
+    }
+
+    public static CacheInvalidationMessage decode(String payload) {
+        String[] parts = payload.split("\\|", 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed cache invalidation message: " + payload);
+        }
+        Object key = switch (parts[2]) {
+            case "L" -> Long.valueOf(parts[3]);
+            case "I" -> Integer.valueOf(parts[3]);
+            case "S" -> parts[3];
+            case CLEAR -> null;
+            default -> throw new IllegalArgumentException("Unknown key type in cache invalidation message: " + payload);
+        };
+        return new CacheInvalidationMessage(parts[0], parts[1], key);
+    }
+}
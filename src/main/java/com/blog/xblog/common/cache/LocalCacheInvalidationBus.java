@@ -0,0 +1,24 @@
+package com.blog.xblog.common.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * In-process bus for single-node deployments and tests. Cache managers sharing one instance
+ * behave like separate nodes on the same channel.
+ */
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final List<BiConsumer<String, Object>> handlers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String cacheName, Object key) {
+        handlers.forEach(handler -> handler.accept(cacheName, key));
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, Object> handler) {
+        handlers.add(handler);
+    }
+}
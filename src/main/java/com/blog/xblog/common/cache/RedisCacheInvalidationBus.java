@@ -0,0 +1,100 @@
+package com.blog.xblog.common.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Invalidation bus over Redis pub/sub. Messages published by this node are ignored on
+ * receipt, since the local tier was already evicted when they were sent.
+ * <p>
+ * The listener container is started in the background and retried until Redis is reachable,
+ * so a node can boot without Redis; until then its near-cache staleness is bounded by the
+ * local TTL.
+ */
+public class RedisCacheInvalidationBus implements CacheInvalidationBus, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCacheInvalidationBus.class);
+    private static final Duration SUBSCRIBE_RETRY_INTERVAL = Duration.ofSeconds(5);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic topic;
+    private volatile boolean running;
+
+    public RedisCacheInvalidationBus(StringRedisTemplate redisTemplate,
+                                     RedisMessageListenerContainer listenerContainer,
+                                     String channel) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.topic = new ChannelTopic(channel);
+    }
+
+    @Override
+    public void publish(String cacheName, Object key) {
+        try {
+            redisTemplate.convertAndSend(topic.getTopic(), new CacheInvalidationMessage(nodeId, cacheName, key).encode());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to broadcast invalidation for cache={} key={}: {}", cacheName, key, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, Object> handler) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                CacheInvalidationMessage received =
+                        CacheInvalidationMessage.decode(new String(message.getBody(), StandardCharsets.UTF_8));
+                if (!nodeId.equals(received.origin())) {
+                    handler.accept(received.cacheName(), received.key());
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Ignoring cache invalidation message: {}", ex.getMessage());
+            }
+        }, topic);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread.ofVirtual().name("cache-invalidation-subscriber").start(this::startListenerContainer);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        listenerContainer.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void startListenerContainer() {
+        while (running && !listenerContainer.isRunning()) {
+            try {
+                listenerContainer.start();
+                log.info("Subscribed to cache invalidation channel {}", topic.getTopic());
+            } catch (RuntimeException ex) {
+                log.warn("Cache invalidation subscription failed, retrying in {}s: {}",
+                        SUBSCRIBE_RETRY_INTERVAL.toSeconds(), ex.getMessage());
+                try {
+                    Thread.sleep(SUBSCRIBE_RETRY_INTERVAL);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
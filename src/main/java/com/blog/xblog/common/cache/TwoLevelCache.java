@@ -0,0 +1,163 @@
+package com.blog.xblog.common.cache;
+
+import java.util.concurrent.Callable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+/**
+ * Near-cache in front of a shared remote cache. Reads are served from the local tier and
+ * fall through to the remote tier on a miss, promoting what they find. Remote failures are
+ * logged and treated as misses so the node keeps serving from local memory when Redis is down.
+ * Evictions are broadcast so other nodes drop their local copies too.
+ */
+public class TwoLevelCache implements Cache {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoLevelCache.class);
+
+    private final String name;
+    private final Cache local;
+    private final Cache remote;
+    private final CacheInvalidationBus invalidationBus;
+
+    /**
+     * @param remote shared tier, or {@code null} for a local-only cache
+     */
+    public TwoLevelCache(String name, Cache local, Cache remote, CacheInvalidationBus invalidationBus) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value != null || remote == null) {
+            return value;
+        }
+        value = remoteGet(key);
+        if (value != null) {
+            local.put(key, value.get());
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return local.get(key, () -> {
+            ValueWrapper cached = remoteGet(key);
+            if (cached != null) {
+                return (T) cached.get();
+            }
+            T value = valueLoader.call();
+            remotePut(key, value);
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        local.put(key, value);
+        remotePut(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteEvict(key);
+        local.evict(key);
+        invalidationBus.publish(name, key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        remoteEvict(key);
+        boolean present = local.evictIfPresent(key);
+        invalidationBus.publish(name, key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        if (remote != null) {
+            try {
+                remote.clear();
+            } catch (RuntimeException ex) {
+                log.warn("Remote cache clear failed for cache={}: {}", name, ex.getMessage());
+            }
+        }
+        local.clear();
+        invalidationBus.publish(name, null);
+    }
+
+    /**
+     * Drops the entry from the local tier only, leaving the shared tier untouched.
+     */
+    public void evictLocal(Object key) {
+        local.evict(key);
+    }
+
+    /**
+     * Empties the local tier only, leaving the shared tier untouched.
+     */
+    public void clearLocal() {
+        local.clear();
+    }
+
+    private ValueWrapper remoteGet(Object key) {
+        if (remote == null) {
+            return null;
+        }
+        try {
+            return remote.get(key);
+        } catch (RuntimeException ex) {
+            log.warn("Remote cache get failed for cache={} key={}, treating as miss: {}", name, key, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void remotePut(Object key, Object value) {
+        if (remote == null || value == null) {
+            return;
+        }
+        try {
+            remote.put(key, value);
+        } catch (RuntimeException ex) {
+            log.warn("Remote cache put failed for cache={} key={}: {}", name, key, ex.getMessage());
+        }
+    }
+
+    private void remoteEvict(Object key) {
+        if (remote == null) {
+            return;
+        }
+        try {
+            remote.evict(key);
+        } catch (RuntimeException ex) {
+            log.warn("Remote cache evict failed for cache={} key={}: {}", name, key, ex.getMessage());
+        }
+    }
+}
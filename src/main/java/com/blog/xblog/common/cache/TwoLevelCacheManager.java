@@ -0,0 +1,36 @@
+package com.blog.xblog.common.cache;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractCacheManager;
+
+/**
+ * Cache manager for {@link TwoLevelCache}s that applies invalidations broadcast by other
+ * nodes to the local tier.
+ */
+public class TwoLevelCacheManager extends AbstractCacheManager {
+
+    private final List<TwoLevelCache> caches;
+
+    public TwoLevelCacheManager(Collection<TwoLevelCache> caches, CacheInvalidationBus invalidationBus) {
+        this.caches = List.copyOf(caches);
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return caches;
+    }
+
+    private void onInvalidation(String cacheName, Object key) {
+        if (getCache(cacheName) instanceof TwoLevelCache cache) {
+            if (key == null) {
+                cache.clearLocal();
+            } else {
+                cache.evictLocal(key);
+            }
+        }
+    }
+}
@@ -26,4 +26,6 @@ public class PageResponse<T> {
     private int totalPages;
 
     private boolean last;
+
+    private String nextCursor;
 }
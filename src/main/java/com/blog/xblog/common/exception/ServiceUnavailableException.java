@@ -0,0 +1,10 @@
+package com.blog.xblog.common.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends ApiException {
+
+    public ServiceUnavailableException(String message) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -6,8 +6,13 @@ import java.util.stream.Collectors;
 
 import com.blog.xblog.blog.entity.BlogEntity;
 import com.blog.xblog.blog.post.dto.PostCreateRequest;
+import com.blog.xblog.blog.post.dto.PostImportRequest;
 import com.blog.xblog.blog.post.dto.PostResponse;
+import com.blog.xblog.blog.post.dto.PostSummaryResponse;
 import com.blog.xblog.blog.post.dto.PostUpdateRequest;
+import com.blog.xblog.blog.post.repository.PostSummaryView;
+import com.blog.xblog.common.storage.FileStorageService;
+import com.blog.xblog.common.storage.ImageVariant;
 import com.blog.xblog.user.entity.UserEntity;
 
 public final class PostMapper {
@@ -22,10 +27,6 @@ public final class PostMapper {
 
         UserEntity author = entity.getAuthor();
 
-        String imageUrl = entity.getImagePath() != null && !entity.getImagePath().isBlank()
-                ? "/api/posts/" + entity.getId() + "/image"
-                : null;
-
         return new PostResponse(
                 entity.getId(),
                 entity.getTitle(),
@@ -33,12 +34,39 @@ public final class PostMapper {
                 entity.getContent(),
                 author != null ? author.getId() : null,
                 author != null ? author.getUsername() : null,
-                imageUrl,
+                toImageUrl(entity.getId(), entity.getImagePath(), entity.getImageVariants(), ImageVariant.ORIGINAL),
                 entity.getCreatedAt(),
                 entity.getUpdatedAt()
         );
     }
 
+    public static PostSummaryResponse toPostSummaryResponse(PostSummaryView view) {
+        if (view == null) {
+            return null;
+        }
+
+        return new PostSummaryResponse(
+                view.id(),
+                view.title(),
+                view.slug(),
+                view.authorId(),
+                view.authorUsername(),
+                toImageUrl(view.id(), view.imagePath(), view.imageVariants(), ImageVariant.THUMBNAIL),
+                view.createdAt(),
+                view.updatedAt()
+        );
+    }
+
+    public static List<PostSummaryResponse> toPostSummaryResponses(List<PostSummaryView> views) {
+        if (views == null) {
+            return List.of();
+        }
+
+        return views.stream()
+                .map(PostMapper::toPostSummaryResponse)
+                .collect(Collectors.toList());
+    }
+
     public static List<PostResponse> toPostResponses(List<BlogEntity> entities) {
         if (entities == null) {
             return List.of();
@@ -68,6 +96,37 @@ public final class PostMapper {
                 .build();
     }
 
+    /** A post from a bulk import; without an original {@code createdAt} it is dated {@code now}. */
+    public static BlogEntity toBlogEntity(PostImportRequest request, UserEntity author, String slug, Instant now) {
+        Instant createdAt = request.createdAt() != null ? request.createdAt() : now;
+        return BlogEntity.builder()
+                .title(request.title())
+                .slug(slug)
+                .content(request.content())
+                .author(author)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+    }
+
+    /**
+     * Content-addressed images link straight to their immutable {@code /api/media} URL once the
+     * requested variant exists; until then, and for older per-post files, the post's image
+     * endpoint serves the best available size.
+     */
+    private static String toImageUrl(Long postId, String imagePath, String imageVariants, ImageVariant variant) {
+        if (imagePath == null || imagePath.isBlank()) {
+            return null;
+        }
+        if (FileStorageService.isContentAddressed(imagePath)
+                && (variant == ImageVariant.ORIGINAL || ImageVariant.parseList(imageVariants).contains(variant))) {
+            return "/api/media/" + FileStorageService.mediaName(variant.pathFor(imagePath));
+        }
+        return variant == ImageVariant.ORIGINAL
+                ? "/api/posts/" + postId + "/image"
+                : "/api/posts/" + postId + "/image?size=" + variant.paramValue();
+    }
+
     public static void applyUpdate(PostUpdateRequest request, BlogEntity entity, Instant updatedAt) {
         if (request == null || entity == null) {
             return;
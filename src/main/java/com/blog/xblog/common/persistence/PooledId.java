@@ -0,0 +1,24 @@
+package com.blog.xblog.common.persistence;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Assigns ids before insert so Hibernate can batch the inserts, unlike {@code IDENTITY}: a pooled
+ * sequence where the database has sequences, an in-process counter where it does not (SQLite).
+ */
+@IdGeneratorType(PooledIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface PooledId {
+
+    /** Sequence to draw ids from. */
+    String sequence();
+
+    /** Ids reserved per sequence call; must match the sequence's {@code INCREMENT BY}. */
+    int allocationSize() default 50;
+}
@@ -0,0 +1,63 @@
+package com.blog.xblog.common.persistence;
+
+import java.util.Properties;
+
+import org.hibernate.boot.model.relational.Database;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.IncrementGenerator;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.mapping.Column;
+
+/**
+ * Backs {@link PooledId}. Sequence-capable databases get a pooled {@link SequenceStyleGenerator},
+ * so every node reserves a block of ids per round trip. On SQLite, Hibernate would emulate the
+ * sequence with a table updated over a second connection, which cannot be had while the single
+ * write connection is busy; since SQLite has one writer process anyway, ids are counted up in
+ * memory from the table's current maximum instead ({@link IncrementGenerator}).
+ */
+public class PooledIdGenerator implements IdentifierGenerator {
+
+    private final PooledId config;
+    private IdentifierGenerator delegate;
+
+    public PooledIdGenerator(PooledId config) {
+        this.config = config;
+    }
+
+    @Override
+    public void configure(GeneratorCreationContext context, Properties parameters) {
+        Properties params = new Properties();
+        params.putAll(parameters);
+        if (context.getDatabase().getDialect().getSequenceSupport().supportsPooledSequences()) {
+            params.setProperty(SequenceStyleGenerator.SEQUENCE_PARAM, config.sequence());
+            params.setProperty(OptimizableGenerator.INCREMENT_PARAM, Integer.toString(config.allocationSize()));
+            params.setProperty(OptimizableGenerator.OPT_PARAM, "pooled");
+            delegate = new SequenceStyleGenerator();
+        } else {
+            Column column = (Column) context.getValue().getSelectables().get(0);
+            params.setProperty(IncrementGenerator.COLUMN, column.getName());
+            params.setProperty(IncrementGenerator.TABLES, context.getRootClass().getTable().getName());
+            delegate = new IncrementGenerator();
+        }
+        delegate.configure(context, params);
+    }
+
+    @Override
+    public void registerExportables(Database database) {
+        delegate.registerExportables(database);
+    }
+
+    @Override
+    public void initialize(SqlStringGenerationContext context) {
+        delegate.initialize(context);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        return delegate.generate(session, entity);
+    }
+}
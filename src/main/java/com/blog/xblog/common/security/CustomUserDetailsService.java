@@ -1,5 +1,7 @@
 package com.blog.xblog.common.security;
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -11,9 +13,11 @@ import com.blog.xblog.user.repository.UserRepository;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, CacheManager cacheManager) {
         this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
     }
 
     @Override
@@ -22,4 +26,25 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .map(CustomUserDetails::fromUserEntity)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
+
+    /**
+     * Principal for a request that already carries a verified token. Served from the
+     * local-only {@code principals} cache (without the password hash) so authenticated
+     * requests skip the user lookup; entries are evicted by {@code UserService.updateProfile}.
+     */
+    public CustomUserDetails loadPrincipal(String username) throws UsernameNotFoundException {
+        Cache principals = cacheManager.getCache("principals");
+        CustomUserDetails cached = principals != null ? principals.get(username, CustomUserDetails.class) : null;
+        if (cached != null) {
+            return cached;
+        }
+
+        CustomUserDetails principal = userRepository.findByUsername(username)
+                .map(user -> new CustomUserDetails(user.getId(), user.getUsername(), null))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        if (principals != null) {
+            principals.put(username, principal);
+        }
+        return principal;
+    }
 }
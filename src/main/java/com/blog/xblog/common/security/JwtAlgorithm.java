@@ -0,0 +1,79 @@
+package com.blog.xblog.common.security;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+/**
+ * Token signing algorithms supported by {@link JwtTokenProvider}. Keys are base64 DER:
+ * PKCS#8 for private keys, X.509 SubjectPublicKeyInfo for public keys.
+ */
+public enum JwtAlgorithm {
+
+    RS256("RSA", Jwts.SIG.RS256),
+    ES256("EC", Jwts.SIG.ES256),
+    /** Ed25519 keys; Ed448 keys are accepted as well. */
+    EdDSA("EdDSA", Jwts.SIG.EdDSA);
+
+    private final String keyFactoryAlgorithm;
+    private final SignatureAlgorithm signatureAlgorithm;
+
+    JwtAlgorithm(String keyFactoryAlgorithm, SignatureAlgorithm signatureAlgorithm) {
+        this.keyFactoryAlgorithm = keyFactoryAlgorithm;
+        this.signatureAlgorithm = signatureAlgorithm;
+    }
+
+    public SignatureAlgorithm signatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    public KeyPair loadKeyPair(String base64PrivateKey, String base64PublicKey) throws GeneralSecurityException {
+        KeyFactory keyFactory = KeyFactory.getInstance(keyFactoryAlgorithm);
+        PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(Decoders.BASE64.decode(base64PrivateKey)));
+        PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(Decoders.BASE64.decode(base64PublicKey)));
+        return new KeyPair(publicKey, privateKey);
+    }
+
+    public KeyPair generateKeyPair() throws GeneralSecurityException {
+        return switch (this) {
+            case RS256 -> {
+                KeyPairGenerator gen = KeyPairGenerator.getInstance("RSA");
+                gen.initialize(2048);
+                yield gen.generateKeyPair();
+            }
+            case ES256 -> {
+                KeyPairGenerator gen = KeyPairGenerator.getInstance("EC");
+                gen.initialize(new ECGenParameterSpec("secp256r1"));
+                yield gen.generateKeyPair();
+            }
+            case EdDSA -> KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        };
+    }
+
+    /**
+     * Parses a public key of any supported type, so verification keys kept for rotation need not
+     * share the current signing algorithm.
+     */
+    public static PublicKey parsePublicKey(String base64PublicKey) throws GeneralSecurityException {
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(Decoders.BASE64.decode(base64PublicKey));
+        GeneralSecurityException last = null;
+        for (JwtAlgorithm algorithm : values()) {
+            try {
+                return KeyFactory.getInstance(algorithm.keyFactoryAlgorithm).generatePublic(spec);
+            } catch (GeneralSecurityException ex) {
+                last = ex;
+            }
+        }
+        throw last;
+    }
+}
@@ -0,0 +1,29 @@
+package com.blog.xblog.common.security;
+
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Token signing settings ({@code security.jwt.*}).
+ *
+ * @param privateKey           base64 PKCS#8 signing key; a key is generated in memory when absent
+ * @param publicKey            base64 X.509 key matching {@code privateKey}
+ * @param algorithm            signing algorithm of the current key pair
+ * @param keyId                {@code kid} header of issued tokens; derived from the public key when blank
+ * @param additionalPublicKeys retired keys still accepted for verification, each {@code kid:base64}
+ *                             (or bare base64 to derive the kid)
+ * @param validityMs           token lifetime
+ * @param verifiedCacheSize    bound of the verified-token cache
+ */
+@ConfigurationProperties(prefix = "security.jwt")
+public record JwtProperties(
+        String privateKey,
+        String publicKey,
+        @DefaultValue("RS256") JwtAlgorithm algorithm,
+        String keyId,
+        List<String> additionalPublicKeys,
+        @DefaultValue("86400000") long validityMs,
+        @DefaultValue("10000") long verifiedCacheSize
+) {}
@@ -1,71 +1,111 @@
 package com.blog.xblog.common.security;
 
-import java.security.KeyFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.security.KeyPair;
-import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
-import java.security.spec.PKCS8EncodedKeySpec;
-import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.LocatorAdapter;
 
 @Component
 public class JwtTokenProvider {
 
     private static final Logger log = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    private final JwtAlgorithm algorithm;
     private final PrivateKey privateKey;
-    private final PublicKey publicKey;
+    private final String keyId;
+    /** Current and retired public keys by {@code kid}. */
+    private final Map<String, PublicKey> verificationKeys;
+    private final PublicKey defaultVerificationKey;
     private final long validityInMillis;
+    private final JwtParser parser;
+    /** Claims of recently verified tokens, keyed by SHA-256 of the token and dropped at its expiry. */
+    private final Cache<String, Claims> verifiedTokens;
 
-    public JwtTokenProvider(
-            @Value("${security.jwt.private-key:}") String base64PrivateKey,
-            @Value("${security.jwt.public-key:}") String base64PublicKey,
-            @Value("${security.jwt.validity-ms:86400000}") long validityInMillis) {
-        KeyPair pair = loadOrGenerateKeys(base64PrivateKey, base64PublicKey);
+    public JwtTokenProvider(JwtProperties properties) {
+        this.algorithm = properties.algorithm();
+        KeyPair pair = loadOrGenerateKeys(properties.privateKey(), properties.publicKey());
         this.privateKey = pair.getPrivate();
-        this.publicKey = pair.getPublic();
-        this.validityInMillis = validityInMillis;
+        this.defaultVerificationKey = pair.getPublic();
+        this.keyId = StringUtils.hasText(properties.keyId()) ? properties.keyId().trim() : thumbprint(pair.getPublic());
+        this.verificationKeys = loadVerificationKeys(properties);
+        this.validityInMillis = properties.validityMs();
+        this.parser = Jwts.parser()
+                .keyLocator(new VerificationKeyLocator())
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(properties.verifiedCacheSize())
+                .expireAfter(Expiry.creating((String hash, Claims claims) -> timeUntilExpiry(claims)))
+                .build();
     }
 
     private KeyPair loadOrGenerateKeys(String base64PrivateKey, String base64PublicKey) {
-        String cleanPrivate = base64PrivateKey == null ? "" : base64PrivateKey.replaceAll("\\s+", "").trim();
-        String cleanPublic = base64PublicKey == null ? "" : base64PublicKey.replaceAll("\\s+", "").trim();
+        String cleanPrivate = stripWhitespace(base64PrivateKey);
+        String cleanPublic = stripWhitespace(base64PublicKey);
 
         if (cleanPrivate.length() > 0 && cleanPublic.length() > 0) {
             try {
-                KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-                byte[] privateKeyBytes = Decoders.BASE64.decode(cleanPrivate);
-                byte[] publicKeyBytes = Decoders.BASE64.decode(cleanPublic);
-                PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(privateKeyBytes));
-                PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(publicKeyBytes));
-                return new KeyPair(publicKey, privateKey);
+                return algorithm.loadKeyPair(cleanPrivate, cleanPublic);
             } catch (Exception ex) {
                 log.warn("Invalid or incomplete JWT keys in config, using generated in-memory key (dev only): {}", ex.getMessage());
             }
         }
 
         try {
-            KeyPairGenerator gen = KeyPairGenerator.getInstance("RSA");
-            gen.initialize(2048);
-            KeyPair pair = gen.generateKeyPair();
-            log.warn("JWT keys not set or invalid. Using in-memory RSA key (tokens invalid after restart). Set JWT_PRIVATE_KEY and JWT_PUBLIC_KEY for production.");
+            KeyPair pair = algorithm.generateKeyPair();
+            log.warn("JWT keys not set or invalid. Using in-memory {} key (tokens invalid after restart). Set JWT_PRIVATE_KEY and JWT_PUBLIC_KEY for production.", algorithm);
             return pair;
         } catch (Exception ex) {
-            throw new IllegalStateException("Failed to load or generate RSA keys for JWT", ex);
+            throw new IllegalStateException("Failed to load or generate " + algorithm + " keys for JWT", ex);
+        }
+    }
+
+    private Map<String, PublicKey> loadVerificationKeys(JwtProperties properties) {
+        Map<String, PublicKey> keys = new LinkedHashMap<>();
+        keys.put(keyId, defaultVerificationKey);
+        if (properties.additionalPublicKeys() == null) {
+            return Map.copyOf(keys);
+        }
+        for (String entry : properties.additionalPublicKeys()) {
+            String clean = stripWhitespace(entry);
+            if (clean.isEmpty()) {
+                continue;
+            }
+            int separator = clean.indexOf(':');
+            try {
+                PublicKey key = JwtAlgorithm.parsePublicKey(separator < 0 ? clean : clean.substring(separator + 1));
+                keys.putIfAbsent(separator < 0 ? thumbprint(key) : clean.substring(0, separator), key);
+            } catch (Exception ex) {
+                log.warn("Ignoring invalid JWT verification key: {}", ex.getMessage());
+            }
         }
+        return Map.copyOf(keys);
     }
 
     public String generateToken(Authentication authentication) {
@@ -78,31 +118,91 @@ public class JwtTokenProvider {
         Date expiry = new Date(now.getTime() + validityInMillis);
 
         return Jwts.builder()
-                .setSubject(username)
-                .setIssuedAt(now)
-                .setExpiration(expiry)
-                .signWith(privateKey, SignatureAlgorithm.RS256)
+                .header().keyId(keyId).and()
+                .subject(username)
+                .issuedAt(now)
+                .expiration(expiry)
+                .signWith(privateKey, algorithm.signatureAlgorithm())
                 .compact();
     }
 
+    /**
+     * Verifies the token's signature and expiry once and returns its claims, or empty if the token
+     * is invalid. A token already verified is answered from the cache until it expires.
+     */
+    public Optional<Claims> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        String hash = sha256(token);
+        Claims cached = verifiedTokens.getIfPresent(hash);
+        if (cached != null && !isExpired(cached)) {
+            return Optional.of(cached);
+        }
+
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            verifiedTokens.put(hash, claims);
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
+
     public String getUsername(String token) {
-        return getClaims(token).getSubject();
+        return verify(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new JwtException("Invalid JWT"));
     }
 
     public boolean validateToken(String token) {
-        try {
-            getClaims(token);
-            return true;
-        } catch (Exception ex) {
-            return false;
+        return verify(token).isPresent();
+    }
+
+    /**
+     * Resolves the verification key from the {@code kid} header; tokens issued without one
+     * predate key ids and are checked against the current key.
+     */
+    private final class VerificationKeyLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String kid = header.getKeyId();
+            return kid == null ? defaultVerificationKey : verificationKeys.get(kid);
         }
     }
 
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(publicKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static Duration timeUntilExpiry(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return Duration.ZERO;
+        }
+        long remaining = expiration.getTime() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(remaining, 0));
+    }
+
+    private static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration == null || expiration.getTime() <= System.currentTimeMillis();
+    }
+
+    private static String thumbprint(PublicKey key) {
+        return sha256(key.getEncoded()).substring(0, 16);
+    }
+
+    private static String stripWhitespace(String value) {
+        return value == null ? "" : value.replaceAll("\\s+", "");
+    }
+
+    private static String sha256(String token) {
+        return sha256(token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
     }
 }
@@ -0,0 +1,126 @@
+package com.blog.xblog.common.storage;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes a file to the response without buffering it on the heap: conditional requests are
+ * answered with 304, a single {@code Range} with 206, and the bytes go out through the container's
+ * sendfile support when available, otherwise through {@link FileChannel#transferTo}. Images in a
+ * remote store are answered with a redirect to their presigned URL.
+ */
+public final class FileResponseWriter {
+
+    static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    /** Presigned URLs outlive this, so a browser may reuse a redirect for a minute. */
+    static final String REDIRECT_CACHE_CONTROL = "private, max-age=60";
+
+    /** Below this size a plain copy is cheaper than handing the file to the poller (Tomcat's default). */
+    static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    private FileResponseWriter() {
+    }
+
+    public static void write(StoredImage file, String cacheControl,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (file.redirect() != null) {
+            response.setStatus(HttpStatus.FOUND.value());
+            response.setHeader(HttpHeaders.LOCATION, file.redirect().toString());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, REDIRECT_CACHE_CONTROL);
+            return;
+        }
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        if (webRequest.checkNotModified(file.etag(), file.lastModified().toEpochMilli())) {
+            return;
+        }
+
+        long length = file.length();
+        long start = 0;
+        long end = length - 1;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setContentType(file.contentType().toString());
+
+        HttpRange range = singleRange(request, file.etag());
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException ex) {
+                start = length;
+            }
+            if (start >= length) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    /**
+     * The requested range if there is exactly one and any {@code If-Range} still matches; multiple
+     * ranges and malformed headers are served as the full body, as RFC 9110 permits.
+     */
+    private static HttpRange singleRange(HttpServletRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -1,93 +1,276 @@
 package com.blog.xblog.common.storage;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Set;
-import java.util.UUID;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.blog.xblog.common.exception.BadRequestException;
+import com.blog.xblog.common.util.ETagUtil;
 
 @Service
 public class FileStorageService {
 
-    private static final Set<String> ALLOWED_CONTENT_TYPES = Set.of(
-            "image/jpeg",
-            "image/png"
-    );
+    private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int BUFFER_SIZE = 64 * 1024;
     private static final long MAX_SIZE_BYTES = 5 * 1024 * 1024; 
 
+    public static final String MEDIA_DIR = "media";
+    private static final String TEMP_DIR = ".tmp";
+
     private final Path basePath;
+    private final StorageBackend backend;
 
-    public FileStorageService(@Value("${app.upload.dir:./uploads}") String uploadDir) {
+    /**
+     * @param uploadDir local directory for staging uploads and building variants; with the local
+     *                  backend it also holds the stored images
+     */
+    public FileStorageService(@Value("${app.upload.dir:./uploads}") String uploadDir, StorageBackend backend) {
         this.basePath = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.backend = backend;
     }
 
-    public String savePostImage(Long postId, MultipartFile file) {
+    /**
+     * Stages a multipart upload through {@link #stage(InputStream)}. Returns null for a missing or
+     * empty file; the part's declared content type is ignored in favour of the bytes themselves.
+     */
+    public StagedUpload stage(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             return null;
         }
-
-        String contentType = file.getContentType();
-        if (contentType == null || !ALLOWED_CONTENT_TYPES.contains(contentType)) {
-            throw new BadRequestException("Only JPEG and PNG images are allowed");
-        }
         if (file.getSize() > MAX_SIZE_BYTES) {
             throw new BadRequestException("Image size must not exceed 5MB");
         }
+        try (InputStream in = file.getInputStream()) {
+            return stage(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to save image", e);
+        }
+    }
+
+    /**
+     * Streams an image to a temporary file under the upload directory in a single pass: the format
+     * is sniffed from the leading magic bytes, the size cap is enforced as bytes arrive, and the
+     * SHA-256 is computed on the way. With the local backend the temporary file shares a
+     * filesystem with the media directory, so {@link #publish} is a rename rather than a second copy.
+     */
+    public StagedUpload stage(InputStream in) {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        Path tempFile = null;
+        try {
+            int head = in.readNBytes(buffer, 0, PNG_MAGIC.length);
+            String contentType = sniffContentType(buffer, head);
+            if (contentType == null) {
+                throw new BadRequestException("Only JPEG and PNG images are allowed");
+            }
+            Path tempDir = basePath.resolve(TEMP_DIR);
+            Files.createDirectories(tempDir);
+            tempFile = Files.createTempFile(tempDir, "upload-", ".part");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = head;
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                digest.update(buffer, 0, head);
+                out.write(buffer, 0, head);
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > MAX_SIZE_BYTES) {
+                        throw new BadRequestException("Image size must not exceed 5MB");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            String extension = contentType.equals(MediaType.IMAGE_PNG_VALUE) ? "png" : "jpg";
+            return new StagedUpload(tempFile, HexFormat.of().formatHex(digest.digest()), size, contentType, extension);
+        } catch (IOException e) {
+            deleteQuietly(tempFile);
+            throw new IllegalStateException("Failed to save image", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(tempFile);
+            throw e;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 
-        String extension = contentType.equals("image/png") ? "png" : "jpg";
-        String safeFilename = UUID.randomUUID() + "." + extension;
-        String relativePath = "posts/" + postId + "/" + safeFilename;
-        Path targetPath = resolveAndValidateRelative(relativePath);
+    private static String sniffContentType(byte[] head, int length) {
+        if (length >= JPEG_MAGIC.length && Arrays.equals(head, 0, JPEG_MAGIC.length, JPEG_MAGIC, 0, JPEG_MAGIC.length)) {
+            return MediaType.IMAGE_JPEG_VALUE;
+        }
+        if (length >= PNG_MAGIC.length && Arrays.equals(head, 0, PNG_MAGIC.length, PNG_MAGIC, 0, PNG_MAGIC.length)) {
+            return MediaType.IMAGE_PNG_VALUE;
+        }
+        return null;
+    }
 
+    /**
+     * Moves a staged upload to its content address. Content is immutable, so if the address is
+     * already taken the existing object is kept and the staged copy dropped.
+     */
+    public String publish(StagedUpload upload) {
+        String key = validateKey(upload.relativePath());
         try {
-            Files.createDirectories(targetPath.getParent());
-            file.transferTo(targetPath.toFile());
+            if (!backend.exists(key)) {
+                backend.put(key, upload.tempFile(), upload.contentType());
+            }
         } catch (IOException e) {
             throw new IllegalStateException("Failed to save image", e);
+        } finally {
+            deleteQuietly(upload.tempFile());
         }
+        return key;
+    }
+
+    public void discard(StagedUpload upload) {
+        if (upload != null) {
+            deleteQuietly(upload.tempFile());
+        }
+    }
 
-        return relativePath;
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+        }
+    }
+
+    /**
+     * Writes the resized {@code variant} of a stored image next to it. Returns false if the image
+     * is already small enough to be served as that variant. Images in a remote store are fetched
+     * to the staging directory to be resized.
+     */
+    public boolean createVariant(String relativePath, ImageVariant variant) throws IOException {
+        String key = validateKey(relativePath);
+        String targetKey = validateKey(variant.pathFor(relativePath));
+        if (isContentAddressed(relativePath) && backend.exists(targetKey)) {
+            return true;
+        }
+        Path tempDir = Files.createDirectories(basePath.resolve(TEMP_DIR));
+        Path source = backend.localPath(key);
+        Path download = null;
+        Path resized = Files.createTempFile(tempDir, "variant-", ".part");
+        try {
+            if (source == null) {
+                download = Files.createTempFile(tempDir, "source-", ".part");
+                try (InputStream in = backend.open(key)) {
+                    Files.copy(in, download, StandardCopyOption.REPLACE_EXISTING);
+                }
+                source = download;
+            }
+            if (!ImageResizer.resize(source, resized, variant.maxDimension())) {
+                return false;
+            }
+            backend.put(targetKey, resized, contentTypeOf(targetKey).toString());
+            return true;
+        } finally {
+            deleteQuietly(resized);
+            deleteQuietly(download);
+        }
+    }
+
+    /** Whether a path is a content address (shared and immutable) rather than a per-post file. */
+    public static boolean isContentAddressed(String relativePath) {
+        return relativePath != null && relativePath.startsWith(MEDIA_DIR + "/");
+    }
+
+    /** Public name of a content-addressed path, e.g. {@code <sha256>-thumbnail.jpg}. */
+    public static String mediaName(String relativePath) {
+        return relativePath.substring(relativePath.lastIndexOf('/') + 1);
+    }
+
+    /** Deletes a stored image together with any resized variants of it. */
+    public void deletePostImage(String relativePath) {
+        if (relativePath == null || relativePath.isBlank()) {
+            return;
+        }
+        for (ImageVariant variant : ImageVariant.values()) {
+            deleteByRelativePath(variant.pathFor(relativePath));
+        }
+    }
+
+    /** Deletes the resized variants of a stored image, keeping the image itself. */
+    public void deleteVariants(String relativePath) {
+        for (ImageVariant variant : ImageVariant.resized()) {
+            deleteByRelativePath(variant.pathFor(relativePath));
+        }
     }
 
     public void deleteByRelativePath(String relativePath) {
         if (relativePath == null || relativePath.isBlank()) {
             return;
         }
-        Path path = resolveAndValidateRelative(relativePath);
+        String key = validateKey(relativePath);
         try {
-            Files.deleteIfExists(path);
+            backend.delete(key);
         } catch (IOException e) {
         }
     }
 
-    public Resource getResource(String relativePath) throws IOException {
+    /**
+     * Resolves a stored image for serving, or null if the file is gone. {@code contentType} is the
+     * type recorded at upload; rows that predate it fall back to the file extension. A remote
+     * store is not asked whether the object exists; the image resolves to a presigned URL.
+     */
+    public StoredImage getImage(String relativePath, String contentType) throws IOException {
         if (relativePath == null || relativePath.isBlank()) {
             return null;
         }
-        Path path = resolveAndValidateRelative(relativePath);
-        if (!Files.exists(path) || !Files.isRegularFile(path)) {
+        String key = validateKey(relativePath);
+        MediaType mediaType = contentType != null ? MediaType.parseMediaType(contentType) : contentTypeOf(key);
+        Path path = backend.localPath(key);
+        if (path == null) {
+            URI location = backend.presignedGetUrl(key);
+            return location != null ? StoredImage.redirect(location, mediaType) : null;
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
             return null;
         }
-        return new UrlResource(path.toUri());
+        Instant lastModified = attributes.lastModifiedTime().toInstant();
+        String etag = ETagUtil.forContent(List.of(relativePath, attributes.size(), lastModified).iterator());
+        return new StoredImage(path, mediaType, attributes.size(), lastModified, etag);
+    }
+
+    private static MediaType contentTypeOf(String key) {
+        return MediaTypeFactory.getMediaType(mediaName(key)).orElse(MediaType.APPLICATION_OCTET_STREAM);
     }
 
-    private Path resolveAndValidateRelative(String relativePath) {
+    private String validateKey(String relativePath) {
         if (relativePath.contains("..")) {
             throw new BadRequestException("Invalid path");
         }
         Path resolved = basePath.resolve(relativePath).normalize();
-        if (!resolved.startsWith(basePath)) {
+        if (!resolved.startsWith(basePath) || resolved.equals(basePath)) {
             throw new BadRequestException("Invalid path");
         }
-        return resolved;
+        return basePath.relativize(resolved).toString().replace('\\', '/');
     }
 }
@@ -0,0 +1,71 @@
+package com.blog.xblog.common.storage;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.blog.xblog.common.exception.BadRequestException;
+
+/**
+ * Sizes an uploaded image is served in. Resized variants are stored next to the original as
+ * {@code <name>-<variant>.<ext>} and bounded by {@link #maxDimension()} on their longer side.
+ */
+public enum ImageVariant {
+
+    ORIGINAL(0),
+    MEDIUM(1024),
+    THUMBNAIL(320);
+
+    private final int maxDimension;
+
+    ImageVariant(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public int maxDimension() {
+        return maxDimension;
+    }
+
+    public String paramValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public String pathFor(String originalPath) {
+        if (this == ORIGINAL) {
+            return originalPath;
+        }
+        int dot = originalPath.lastIndexOf('.');
+        return dot > originalPath.lastIndexOf('/')
+                ? originalPath.substring(0, dot) + "-" + paramValue() + originalPath.substring(dot)
+                : originalPath + "-" + paramValue();
+    }
+
+    public static ImageVariant fromParam(String value) {
+        for (ImageVariant variant : values()) {
+            if (variant.paramValue().equalsIgnoreCase(value)) {
+                return variant;
+            }
+        }
+        throw new BadRequestException("Unknown image size: " + value);
+    }
+
+    /** Resized variants, i.e. everything but {@link #ORIGINAL}. */
+    public static Set<ImageVariant> resized() {
+        return EnumSet.complementOf(EnumSet.of(ORIGINAL));
+    }
+
+    public static Set<ImageVariant> parseList(String value) {
+        Set<ImageVariant> variants = EnumSet.noneOf(ImageVariant.class);
+        if (value != null && !value.isBlank()) {
+            for (String part : value.split(",")) {
+                variants.add(fromParam(part.trim()));
+            }
+        }
+        return variants;
+    }
+
+    public static String formatList(Set<ImageVariant> variants) {
+        return variants.stream().map(ImageVariant::paramValue).collect(Collectors.joining(","));
+    }
+}
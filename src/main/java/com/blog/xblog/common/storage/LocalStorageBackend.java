@@ -0,0 +1,53 @@
+package com.blog.xblog.common.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Stores objects as files under the upload directory. Staged uploads live on the same filesystem,
+ * so {@link #put} is an atomic rename.
+ */
+public class LocalStorageBackend implements StorageBackend {
+
+    private final Path basePath;
+
+    public LocalStorageBackend(Path basePath) {
+        this.basePath = basePath.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        Path target = localPath(key);
+        Files.createDirectories(target.getParent());
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(localPath(key));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(localPath(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(localPath(key));
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return basePath.resolve(key);
+    }
+
+    @Override
+    public URI presignedGetUrl(String key) {
+        return null;
+    }
+}
@@ -0,0 +1,164 @@
+package com.blog.xblog.common.storage;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * AWS Signature Version 4 for S3-compatible object stores, both as an {@code Authorization}
+ * header and as a presigned query string. URIs must already be encoded with {@link #encode}.
+ */
+public final class S3RequestSigner {
+
+    public static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String SERVICE = "s3";
+    private static final DateTimeFormatter AMZ_DATE =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final String accessKey;
+    private final String secretKey;
+    private final String region;
+
+    public S3RequestSigner(String accessKey, String secretKey, String region) {
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.region = region;
+    }
+
+    /**
+     * Returns the headers to send with a request: {@code headers} (all of which are signed) plus
+     * {@code x-amz-date}, {@code x-amz-content-sha256} and {@code Authorization}.
+     */
+    public Map<String, String> authorize(String method, URI uri, Map<String, String> headers,
+                                         String payloadHash, Instant now) {
+        String amzDate = AMZ_DATE.format(now);
+        TreeMap<String, String> signed = new TreeMap<>();
+        headers.forEach((name, value) -> signed.put(name.toLowerCase(Locale.ROOT), value.trim()));
+        signed.put("host", hostOf(uri));
+        signed.put("x-amz-content-sha256", payloadHash);
+        signed.put("x-amz-date", amzDate);
+
+        String signedHeaders = String.join(";", signed.keySet());
+        String canonicalHeaders = signed.entrySet().stream()
+                .map(e -> e.getKey() + ":" + e.getValue() + "\n")
+                .collect(Collectors.joining());
+        String canonicalRequest = method + "\n" + canonicalPath(uri) + "\n" + canonicalQuery(uri.getRawQuery()) + "\n"
+                + canonicalHeaders + "\n" + signedHeaders + "\n" + payloadHash;
+        String scope = scope(amzDate);
+
+        Map<String, String> result = new LinkedHashMap<>(headers);
+        result.put("x-amz-content-sha256", payloadHash);
+        result.put("x-amz-date", amzDate);
+        result.put("Authorization", ALGORITHM + " Credential=" + accessKey + "/" + scope
+                + ",SignedHeaders=" + signedHeaders + ",Signature=" + signature(amzDate, scope, canonicalRequest));
+        return result;
+    }
+
+    /** Returns {@code uri} (without a query) with a query string granting {@code method} for {@code ttl}. */
+    public URI presign(String method, URI uri, Duration ttl, Instant now) {
+        String amzDate = AMZ_DATE.format(now);
+        String scope = scope(amzDate);
+        TreeMap<String, String> query = new TreeMap<>();
+        query.put("X-Amz-Algorithm", ALGORITHM);
+        query.put("X-Amz-Credential", encode(accessKey + "/" + scope, true));
+        query.put("X-Amz-Date", amzDate);
+        query.put("X-Amz-Expires", Long.toString(ttl.toSeconds()));
+        query.put("X-Amz-SignedHeaders", "host");
+        String canonicalQuery = join(query);
+
+        String canonicalRequest = method + "\n" + canonicalPath(uri) + "\n" + canonicalQuery + "\n"
+                + "host:" + hostOf(uri) + "\n\nhost\n" + UNSIGNED_PAYLOAD;
+        return URI.create(uri.toString() + "?" + canonicalQuery
+                + "&X-Amz-Signature=" + signature(amzDate, scope, canonicalRequest));
+    }
+
+    /** SigV4 URI encoding: everything but unreserved characters, and {@code /} too if asked. */
+    public static String encode(String value, boolean encodeSlash) {
+        StringBuilder out = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encodeSlash)) {
+                out.append(c);
+            } else {
+                out.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+        return out.toString();
+    }
+
+    public static String sha256Hex(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String scope(String amzDate) {
+        return amzDate.substring(0, 8) + "/" + region + "/" + SERVICE + "/aws4_request";
+    }
+
+    private String signature(String amzDate, String scope, String canonicalRequest) {
+        String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + scope + "\n"
+                + sha256Hex(canonicalRequest.getBytes(StandardCharsets.UTF_8));
+        byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), amzDate.substring(0, 8));
+        key = hmac(key, region);
+        key = hmac(key, SERVICE);
+        key = hmac(key, "aws4_request");
+        return HexFormat.of().formatHex(hmac(key, stringToSign));
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static String hostOf(URI uri) {
+        return uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+    }
+
+    private static String canonicalPath(URI uri) {
+        String path = uri.getRawPath();
+        return path == null || path.isEmpty() ? "/" : path;
+    }
+
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        TreeMap<String, String> params = new TreeMap<>();
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            params.put(eq < 0 ? pair : pair.substring(0, eq), eq < 0 ? "" : pair.substring(eq + 1));
+        }
+        return join(params);
+    }
+
+    private static String join(Map<String, String> params) {
+        return params.entrySet().stream()
+                .map(e -> e.getKey() + "=" + e.getValue())
+                .collect(Collectors.joining("&"));
+    }
+}
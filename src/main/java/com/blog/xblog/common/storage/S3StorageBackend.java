@@ -0,0 +1,217 @@
+package com.blog.xblog.common.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stores objects in an S3-compatible bucket (AWS S3, MinIO, ...), so that app nodes share images
+ * and serve them by redirecting to presigned URLs instead of streaming the bytes themselves.
+ * Files above the multipart threshold are uploaded as parts in parallel.
+ */
+public class S3StorageBackend implements StorageBackend, AutoCloseable {
+
+    private static final Pattern UPLOAD_ID = Pattern.compile("<UploadId>([^<]+)</UploadId>");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI endpoint;
+    private final String bucket;
+    private final boolean pathStyle;
+    private final S3RequestSigner signer;
+    private final long multipartThreshold;
+    private final int partSize;
+    private final Duration presignTtl;
+    private final HttpClient http;
+    private final ExecutorService partUploads;
+    private final Clock clock = Clock.systemUTC();
+
+    public S3StorageBackend(URI endpoint, String bucket, boolean pathStyle, S3RequestSigner signer,
+                            long multipartThreshold, int partSize, int uploadConcurrency, Duration presignTtl) {
+        this.endpoint = endpoint;
+        this.bucket = bucket;
+        this.pathStyle = pathStyle;
+        this.signer = signer;
+        this.multipartThreshold = multipartThreshold;
+        this.partSize = partSize;
+        this.presignTtl = presignTtl;
+        this.http = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+        this.partUploads = Executors.newFixedThreadPool(uploadConcurrency,
+                Thread.ofVirtual().name("s3-upload-", 0).factory());
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        long size;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            size = channel.size();
+        }
+        if (size <= multipartThreshold) {
+            send("PUT", objectUri(key, null), Map.of("Content-Type", contentType),
+                    BodyPublishers.ofFile(source), BodyHandlers.discarding(), 200);
+            return;
+        }
+
+        String uploadId = createMultipartUpload(key, contentType);
+        try {
+            List<Future<String>> parts = new ArrayList<>();
+            for (long offset = 0; offset < size; offset += partSize) {
+                int partNumber = parts.size() + 1;
+                long start = offset;
+                int length = (int) Math.min(partSize, size - offset);
+                parts.add(partUploads.submit(() -> uploadPart(key, uploadId, partNumber, source, start, length)));
+            }
+            StringBuilder manifest = new StringBuilder("<CompleteMultipartUpload>");
+            for (int i = 0; i < parts.size(); i++) {
+                manifest.append("<Part><PartNumber>").append(i + 1).append("</PartNumber><ETag>")
+                        .append(parts.get(i).get()).append("</ETag></Part>");
+            }
+            manifest.append("</CompleteMultipartUpload>");
+            HttpResponse<String> completed = send("POST", objectUri(key, "uploadId=" + S3RequestSigner.encode(uploadId, true)),
+                    Map.of(), BodyPublishers.ofString(manifest.toString()), BodyHandlers.ofString(), 200);
+            if (completed.body().contains("<Error>")) {
+                throw new IOException("Multipart upload of " + key + " failed: " + completed.body());
+            }
+        } catch (IOException | RuntimeException e) {
+            abortMultipartUpload(key, uploadId);
+            throw e;
+        } catch (ExecutionException e) {
+            abortMultipartUpload(key, uploadId);
+            throw new IOException("Multipart upload of " + key + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abortMultipartUpload(key, uploadId);
+            throw new IOException("Interrupted uploading " + key, e);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        HttpResponse<Void> response = send("HEAD", objectUri(key, null), Map.of(),
+                BodyPublishers.noBody(), BodyHandlers.discarding(), 200, 404);
+        return response.statusCode() == 200;
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        HttpResponse<InputStream> response = send("GET", objectUri(key, null), Map.of(),
+                BodyPublishers.noBody(), BodyHandlers.ofInputStream(), 200, 404);
+        if (response.statusCode() == 404) {
+            response.body().close();
+            throw new NoSuchFileException(key);
+        }
+        return response.body();
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        send("DELETE", objectUri(key, null), Map.of(), BodyPublishers.noBody(), BodyHandlers.discarding(), 200, 204, 404);
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return null;
+    }
+
+    @Override
+    public URI presignedGetUrl(String key) {
+        return signer.presign("GET", objectUri(key, null), presignTtl, clock.instant());
+    }
+
+    @Override
+    public void close() {
+        partUploads.shutdownNow();
+        http.close();
+    }
+
+    private String createMultipartUpload(String key, String contentType) throws IOException {
+        HttpResponse<String> response = send("POST", objectUri(key, "uploads="), Map.of("Content-Type", contentType),
+                BodyPublishers.noBody(), BodyHandlers.ofString(), 200);
+        Matcher matcher = UPLOAD_ID.matcher(response.body());
+        if (!matcher.find()) {
+            throw new IOException("No UploadId in response for " + key);
+        }
+        return matcher.group(1);
+    }
+
+    private String uploadPart(String key, String uploadId, int partNumber, Path source, long start, int length)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) >= 0) {
+                // keep reading until the part is full
+            }
+        }
+        HttpResponse<Void> response = send("PUT",
+                objectUri(key, "partNumber=" + partNumber + "&uploadId=" + S3RequestSigner.encode(uploadId, true)),
+                Map.of(), BodyPublishers.ofByteArray(buffer.array()), BodyHandlers.discarding(), 200);
+        return response.headers().firstValue("ETag")
+                .orElseThrow(() -> new IOException("No ETag for part " + partNumber + " of " + key));
+    }
+
+    private void abortMultipartUpload(String key, String uploadId) {
+        try {
+            send("DELETE", objectUri(key, "uploadId=" + S3RequestSigner.encode(uploadId, true)), Map.of(),
+                    BodyPublishers.noBody(), BodyHandlers.discarding(), 200, 204, 404);
+        } catch (IOException e) {
+            // the bucket's lifecycle rule for incomplete uploads cleans up what is left
+        }
+    }
+
+    private URI objectUri(String key, String query) {
+        String encodedKey = S3RequestSigner.encode(key, false);
+        String base = pathStyle
+                ? endpoint.getScheme() + "://" + endpoint.getRawAuthority() + "/" + bucket + "/" + encodedKey
+                : endpoint.getScheme() + "://" + bucket + "." + endpoint.getRawAuthority() + "/" + encodedKey;
+        return URI.create(query == null ? base : base + "?" + query);
+    }
+
+    private <T> HttpResponse<T> send(String method, URI uri, Map<String, String> headers, BodyPublisher body,
+                                     BodyHandler<T> handler, int... expectedStatus) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .method(method, body);
+        signer.authorize(method, uri, headers, S3RequestSigner.UNSIGNED_PAYLOAD, clock.instant())
+                .forEach(request::header);
+        HttpResponse<T> response;
+        try {
+            response = http.send(request.build(), handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted calling object store", e);
+        }
+        for (int status : expectedStatus) {
+            if (response.statusCode() == status) {
+                return response;
+            }
+        }
+        String detail = response.body() instanceof String text ? ": " + text : "";
+        if (response.body() instanceof InputStream stream) {
+            detail = ": " + new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        throw new IOException(method + " " + uri.getRawPath() + " returned " + response.statusCode() + detail);
+    }
+}
@@ -0,0 +1,20 @@
+package com.blog.xblog.common.storage;
+
+import java.nio.file.Path;
+
+/**
+ * An upload written to a temporary file and hashed on the way, waiting to be published at its
+ * content address ({@link #relativePath()}).
+ */
+public record StagedUpload(
+        Path tempFile,
+        String sha256,
+        long size,
+        String contentType,
+        String extension
+) {
+
+    public String relativePath() {
+        return FileStorageService.MEDIA_DIR + "/" + sha256.substring(0, 2) + "/" + sha256 + "." + extension;
+    }
+}
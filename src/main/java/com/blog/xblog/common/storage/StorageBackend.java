@@ -0,0 +1,33 @@
+package com.blog.xblog.common.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+
+/**
+ * Where finished images live. Keys are relative paths such as {@code media/ab/<sha256>.jpg};
+ * staging, hashing and resizing happen on the app node, and only complete files are handed over.
+ */
+public interface StorageBackend {
+
+    /**
+     * Stores {@code source} under {@code key}, replacing any existing object. The source may be
+     * moved rather than copied; callers delete it afterwards if it is still there.
+     */
+    void put(String key, Path source, String contentType) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    /** Opens an object for reading; throws {@link java.nio.file.NoSuchFileException} if it is missing. */
+    InputStream open(String key) throws IOException;
+
+    /** Deletes an object; a missing object is not an error. */
+    void delete(String key) throws IOException;
+
+    /** The object as a local file that can be sent zero-copy, or null if the backend is remote. */
+    Path localPath(String key);
+
+    /** A short-lived URL clients can fetch the object from directly, or null if there is none. */
+    URI presignedGetUrl(String key);
+}
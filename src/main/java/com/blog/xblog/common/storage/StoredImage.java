@@ -0,0 +1,30 @@
+package com.blog.xblog.common.storage;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import org.springframework.http.MediaType;
+
+/**
+ * An image with the metadata needed to serve it. A local image carries its path, with size and
+ * modification time from a single stat; an image in a remote store carries only the URL to
+ * redirect clients to.
+ */
+public record StoredImage(
+        Path path,
+        MediaType contentType,
+        long length,
+        Instant lastModified,
+        String etag,
+        URI redirect
+) {
+
+    public StoredImage(Path path, MediaType contentType, long length, Instant lastModified, String etag) {
+        this(path, contentType, length, lastModified, etag, null);
+    }
+
+    public static StoredImage redirect(URI location, MediaType contentType) {
+        return new StoredImage(null, contentType, -1, null, null, location);
+    }
+}
@@ -0,0 +1,39 @@
+package com.blog.xblog.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+
+public final class ETagUtil {
+
+    private ETagUtil() {
+    }
+
+    /**
+     * Strong ETag for a single resource version, e.g. {@code "42-lk3x9c.3f2a"}.
+     */
+    public static String forVersion(Long id, Instant updatedAt) {
+        return "\"" + id + "-" + Long.toString(updatedAt.getEpochSecond(), 36)
+                + "." + Integer.toString(updatedAt.getNano(), 36) + "\"";
+    }
+
+    /**
+     * Strong ETag over an ordered sequence of values (e.g. the id and version of every item on a
+     * page): a truncated SHA-256 of their string forms.
+     */
+    public static String forContent(Iterator<?> parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            while (parts.hasNext()) {
+                digest.update(String.valueOf(parts.next()).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.blog.xblog.common.util;
+
+import java.util.Locale;
+
+public final class EmailUtil {
+
+    private EmailUtil() {
+    }
+
+    /**
+     * Canonical form used for uniqueness checks: trimmed and lower-cased.
+     */
+    public static String normalize(String email) {
+        if (email == null) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
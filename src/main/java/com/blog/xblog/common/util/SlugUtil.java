@@ -1,19 +1,100 @@
 package com.blog.xblog.common.util;
 
+import java.text.Normalizer;
+
 public final class SlugUtil {
 
+    public static final int MAX_LENGTH = 80;
+
+    private static final String FALLBACK = "post";
+
+    /**
+     * Lower-case letters that NFKD does not reduce to ASCII, indexed by code point. Accented
+     * letters (é, ñ, й, ά) need no entry: decomposition leaves the base letter plus a combining
+     * mark, and the mark is dropped.
+     */
+    private static final String[] TRANSLITERATIONS = new String[0x0500];
+
+    static {
+        String[] pairs = {
+                // Latin
+                "ß", "ss", "æ", "ae", "œ", "oe", "ø", "o", "đ", "d", "ð", "d", "þ", "th",
+                "ł", "l", "ı", "i", "ħ", "h", "ŋ", "n", "ŧ", "t",
+                // Greek
+                "α", "a", "β", "v", "γ", "g", "δ", "d", "ε", "e", "ζ", "z", "η", "i", "θ", "th",
+                "ι", "i", "κ", "k", "λ", "l", "μ", "m", "ν", "n", "ξ", "x", "ο", "o", "π", "p",
+                "ρ", "r", "σ", "s", "ς", "s", "τ", "t", "υ", "y", "φ", "f", "χ", "ch", "ψ", "ps",
+                "ω", "o",
+                // Cyrillic
+                "а", "a", "б", "b", "в", "v", "г", "g", "д", "d", "е", "e", "ж", "zh", "з", "z",
+                "и", "i", "к", "k", "л", "l", "м", "m", "н", "n", "о", "o", "п", "p", "р", "r",
+                "с", "s", "т", "t", "у", "u", "ф", "f", "х", "kh", "ц", "ts", "ч", "ch", "ш", "sh",
+                "щ", "shch", "ъ", "", "ы", "y", "ь", "", "э", "e", "ю", "yu", "я", "ya",
+                "і", "i", "є", "ye", "ґ", "g", "ў", "u", "ђ", "dj", "ј", "j", "љ", "lj", "њ", "nj",
+                "ћ", "c", "џ", "dz", "ѕ", "dz"
+        };
+        for (int i = 0; i < pairs.length; i += 2) {
+            TRANSLITERATIONS[pairs[i].charAt(0)] = pairs[i + 1];
+        }
+    }
+
     private SlugUtil() {
     }
 
+    /**
+     * Lower-case ASCII slug of {@code input}: letters and digits are kept (non-Latin scripts
+     * transliterated, accents stripped), runs of whitespace, hyphens and underscores become a
+     * single hyphen, and other characters are dropped. At most {@link #MAX_LENGTH} characters,
+     * cut at a word boundary where possible; {@code "post"} if nothing usable remains.
+     */
     public static String toSlug(String input) {
         if (input == null) {
             return "";
         }
-        String slug = input
-                .trim()
-                .toLowerCase()
-                .replaceAll("[^a-z0-9\\s-]", "")
-                .replaceAll("\\s+", "-");
-        return slug.isEmpty() ? "post" : slug;
+        String text = isAscii(input) ? input : Normalizer.normalize(input, Normalizer.Form.NFKD);
+
+        StringBuilder slug = new StringBuilder(Math.min(text.length(), MAX_LENGTH + 1));
+        boolean pendingSeparator = false;
+        for (int i = 0; i < text.length() && slug.length() <= MAX_LENGTH; i++) {
+            char c = text.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                pendingSeparator = append(slug, c, pendingSeparator);
+            } else if (c >= 'A' && c <= 'Z') {
+                pendingSeparator = append(slug, (char) (c + ('a' - 'A')), pendingSeparator);
+            } else if (c == '-' || c == '_' || Character.isWhitespace(c)) {
+                pendingSeparator = slug.length() > 0;
+            } else if (c >= 0x80) {
+                char lower = Character.toLowerCase(c);
+                String replacement = lower < TRANSLITERATIONS.length ? TRANSLITERATIONS[lower] : null;
+                if (replacement != null) {
+                    for (int j = 0; j < replacement.length(); j++) {
+                        pendingSeparator = append(slug, replacement.charAt(j), pendingSeparator);
+                    }
+                }
+            }
+        }
+
+        if (slug.length() > MAX_LENGTH) {
+            int boundary = slug.lastIndexOf("-", MAX_LENGTH);
+            slug.setLength(boundary > 0 ? boundary : MAX_LENGTH);
+        }
+        return slug.isEmpty() ? FALLBACK : slug.toString();
+    }
+
+    private static boolean append(StringBuilder slug, char c, boolean pendingSeparator) {
+        if (pendingSeparator) {
+            slug.append('-');
+        }
+        slug.append(c);
+        return false;
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
     }
 }
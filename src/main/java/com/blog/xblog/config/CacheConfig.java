@@ -1,23 +1,134 @@
 package com.blog.xblog.config;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.JacksonJsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+import com.blog.xblog.blog.post.dto.PostResponse;
+import com.blog.xblog.common.cache.CacheInvalidationBus;
+import com.blog.xblog.common.cache.LocalCacheInvalidationBus;
+import com.blog.xblog.common.cache.RedisCacheInvalidationBus;
+import com.blog.xblog.common.cache.TwoLevelCache;
+import com.blog.xblog.common.cache.TwoLevelCacheManager;
+import com.blog.xblog.common.security.CustomUserDetails;
+import com.blog.xblog.user.dto.UserProfileResponse;
+import com.blog.xblog.user.dto.UserResponse;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import tools.jackson.databind.ObjectMapper;
 
 /**
- * In-memory cache used when Redis is unavailable or fails.
- * Ensures GET /api/users/me and other cached endpoints never return 500 due to cache.
+ * Two-tier cache: a bounded Caffeine (W-TinyLFU) near-cache per node in front of Redis.
+ * Redis is optional; when it is disabled or unreachable the caches serve from local memory.
+ * Evictions are broadcast over Redis pub/sub so other nodes drop their near-cache entries.
  */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(TwoLevelCacheProperties.class)
 public class CacheConfig {
 
+    private static final Map<String, Class<?>> CACHE_VALUE_TYPES = new LinkedHashMap<>();
+
+    static {
+        CACHE_VALUE_TYPES.put("posts", PostResponse.class);
+        CACHE_VALUE_TYPES.put("postSlugs", Long.class);
+        CACHE_VALUE_TYPES.put("postVersions", Instant.class);
+        CACHE_VALUE_TYPES.put("users", UserResponse.class);
+        CACHE_VALUE_TYPES.put("userProfiles", UserProfileResponse.class);
+        CACHE_VALUE_TYPES.put("principals", CustomUserDetails.class);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.redis-enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setAutoStartup(false);
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.redis-enabled", havingValue = "true", matchIfMissing = true)
+    public CacheInvalidationBus redisCacheInvalidationBus(RedisConnectionFactory connectionFactory,
+                                                          RedisMessageListenerContainer cacheInvalidationListenerContainer,
+                                                          @Value("${app.cache.invalidation-channel:xblog:cache-invalidation}") String channel) {
+        return new RedisCacheInvalidationBus(
+                new StringRedisTemplate(connectionFactory), cacheInvalidationListenerContainer, channel);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.redis-enabled", havingValue = "false")
+    public CacheInvalidationBus localCacheInvalidationBus() {
+        return new LocalCacheInvalidationBus();
+    }
+
     @Bean
-    @Primary
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("users", "userProfiles", "posts");
+    public CacheManager cacheManager(TwoLevelCacheProperties properties,
+                                     ObjectProvider<RedisConnectionFactory> connectionFactory,
+                                     ObjectMapper objectMapper,
+                                     CacheInvalidationBus invalidationBus) {
+        RedisCacheManager remote = properties.redisEnabled()
+                ? redisCacheManager(properties, connectionFactory.getObject(), objectMapper)
+                : null;
+
+        List<TwoLevelCache> caches = new ArrayList<>();
+        CACHE_VALUE_TYPES.keySet().forEach(name -> {
+            TwoLevelCacheProperties.Spec spec = properties.spec(name);
+            Cache local = new CaffeineCache(name, Caffeine.newBuilder()
+                    .maximumSize(spec.maxSize())
+                    .expireAfterWrite(spec.localTtl())
+                    .recordStats()
+                    .build());
+            caches.add(new TwoLevelCache(name, local, remote != null ? remote.getCache(name) : null, invalidationBus));
+        });
+
+        return new TwoLevelCacheManager(caches, invalidationBus);
+    }
+
+    private RedisCacheManager redisCacheManager(TwoLevelCacheProperties properties,
+                                                RedisConnectionFactory connectionFactory,
+                                                ObjectMapper objectMapper) {
+        Map<String, RedisCacheConfiguration> configurations = new HashMap<>();
+        CACHE_VALUE_TYPES.forEach((name, type) -> {
+            TwoLevelCacheProperties.Spec spec = properties.spec(name);
+            if (spec.remoteTtl().isZero()) {
+                return;
+            }
+            configurations.put(name, RedisCacheConfiguration.defaultCacheConfig()
+                    .entryTtl(spec.remoteTtl())
+                    .disableCachingNullValues()
+                    .serializeValuesWith(SerializationPair.fromSerializer(
+                            new JacksonJsonRedisSerializer<>(objectMapper, type))));
+        });
+
+        RedisCacheManager manager = new RedisCacheManager(
+                RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory),
+                RedisCacheConfiguration.defaultCacheConfig(),
+                false,
+                configurations);
+        manager.afterPropertiesSet();
+        return manager;
     }
 }
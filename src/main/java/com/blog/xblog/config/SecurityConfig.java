@@ -1,9 +1,15 @@
 package com.blog.xblog.config;
 
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -11,14 +17,20 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.IpAddressAuthorizationManager;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import com.blog.xblog.common.security.BoundedPasswordEncoder;
 import com.blog.xblog.common.security.JwtAuthenticationFilter;
+import com.blog.xblog.common.security.JwtProperties;
 import com.blog.xblog.common.security.RestAccessDeniedHandler;
 import com.blog.xblog.common.security.RestAuthenticationEntryPoint;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 @EnableMethodSecurity
+@EnableConfigurationProperties(JwtProperties.class)
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
@@ -33,8 +45,15 @@ public class SecurityConfig {
         this.accessDeniedHandler = accessDeniedHandler;
     }
 
+    /**
+     * Actuator endpoints other than health are for operators only: they are reachable from
+     * {@code operatorAddresses} (loopback by default, e.g. a local metrics scraper) and refused to
+     * everyone else, signed in or not, since anyone can sign up.
+     */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(
+            HttpSecurity http,
+            @Value("${app.management.allowed-addresses:127.0.0.1,::1}") List<String> operatorAddresses) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -47,9 +66,14 @@ public class SecurityConfig {
                                 "/api/auth/**",
                                 "/v3/api-docs/**",
                                 "/swagger-ui.html",
-                                "/swagger-ui/**"
+                                "/swagger-ui/**",
+                                "/actuator/health"
                         ).permitAll()
-                        .requestMatchers(HttpMethod.GET, "/api/posts", "/api/posts/*").permitAll()
+                        .requestMatchers("/actuator/**").access(AuthorizationManagers.anyOf(
+                                operatorAddresses.stream()
+                                        .map(IpAddressAuthorizationManager::hasIpAddress)
+                                        .toArray(IpAddressAuthorizationManager[]::new)))
+                        .requestMatchers(HttpMethod.GET, "/api/posts", "/api/posts/*", "/api/posts/*/image", "/api/posts/slug/*", "/api/media/*").permitAll()
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -58,8 +82,13 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${security.password.pool-size:0}") int poolSize,
+            @Value("${security.password.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.timeout:5s}") Duration timeout) {
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, queueCapacity, timeout, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,90 @@
+package com.blog.xblog.config;
+
+import javax.sql.DataSource;
+
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * SQLite allows one writer at a time, so writes share a single connection: concurrent write
+ * transactions queue for it in the pool instead of failing with {@code SQLITE_BUSY}. Reads go to
+ * a pool of read-only connections, which WAL mode lets run alongside the writer. The primary
+ * {@link DataSource} picks the pool per transaction: {@code @Transactional(readOnly = true)}
+ * (including Spring Data's read methods) reads from the read pool, everything else writes.
+ */
+@Configuration
+@ConditionalOnExpression("'${spring.datasource.url:}'.startsWith('jdbc:sqlite:')")
+@EnableConfigurationProperties(SqliteProperties.class)
+public class SqliteDataSourceConfig {
+
+    private static final long KIB = 1024;
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sqliteWriteDataSource(@Value("${spring.datasource.url}") String url,
+                                                  SqliteProperties properties) {
+        SQLiteConfig config = connectionConfig(properties);
+        config.setJournalMode(SQLiteConfig.JournalMode.valueOf(properties.journalMode()));
+        config.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+
+        HikariConfig pool = new HikariConfig();
+        pool.setPoolName("sqlite-write");
+        pool.setDataSource(dataSource(url, config));
+        pool.setMaximumPoolSize(1);
+        pool.setConnectionTimeout(properties.writeTimeout().toMillis());
+        return new HikariDataSource(pool);
+    }
+
+    /** Created after the write pool, which creates the database file and switches it to WAL. */
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sqliteReadDataSource(@Value("${spring.datasource.url}") String url,
+                                                 SqliteProperties properties,
+                                                 @Qualifier("sqliteWriteDataSource") HikariDataSource sqliteWriteDataSource) {
+        SQLiteConfig config = connectionConfig(properties);
+        config.setReadOnly(true);
+
+        HikariConfig pool = new HikariConfig();
+        pool.setPoolName("sqlite-read");
+        pool.setDataSource(dataSource(url, config));
+        pool.setMaximumPoolSize(properties.readPoolSize() > 0
+                ? properties.readPoolSize()
+                : Runtime.getRuntime().availableProcessors());
+        pool.setReadOnly(true);
+        return new HikariDataSource(pool);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("sqliteWriteDataSource") HikariDataSource sqliteWriteDataSource,
+                                 @Qualifier("sqliteReadDataSource") HikariDataSource sqliteReadDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(sqliteWriteDataSource);
+        dataSource.setReadOnlyDataSource(sqliteReadDataSource);
+        return dataSource;
+    }
+
+    private static SQLiteConfig connectionConfig(SqliteProperties properties) {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(properties.synchronous()));
+        config.setBusyTimeout((int) properties.busyTimeout().toMillis());
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, Long.toString(properties.mmapSize().toBytes()));
+        // a negative cache_size is in KiB rather than pages
+        config.setPragma(SQLiteConfig.Pragma.CACHE_SIZE, Long.toString(-properties.cacheSize().toBytes() / KIB));
+        return config;
+    }
+
+    private static SQLiteDataSource dataSource(String url, SQLiteConfig config) {
+        SQLiteDataSource dataSource = new SQLiteDataSource(config);
+        dataSource.setUrl(url);
+        return dataSource;
+    }
+}
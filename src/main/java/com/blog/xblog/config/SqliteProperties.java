@@ -0,0 +1,30 @@
+package com.blog.xblog.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * SQLite connection tuning ({@code app.sqlite.*}), applied when the datasource URL is a SQLite one.
+ *
+ * @param journalMode   {@code WAL} lets readers run alongside the writer
+ * @param synchronous   {@code NORMAL} is durable across application crashes in WAL mode and skips
+ *                      an fsync per commit
+ * @param busyTimeout   how long a connection waits on another process's lock before {@code SQLITE_BUSY}
+ * @param mmapSize      bytes of the database file read through a memory map
+ * @param cacheSize     page cache per connection
+ * @param readPoolSize  read-only connections; 0 means one per available processor
+ * @param writeTimeout  how long a write transaction waits for the single write connection
+ */
+@ConfigurationProperties(prefix = "app.sqlite")
+public record SqliteProperties(
+        @DefaultValue("WAL") String journalMode,
+        @DefaultValue("NORMAL") String synchronous,
+        @DefaultValue("5s") Duration busyTimeout,
+        @DefaultValue("256MB") DataSize mmapSize,
+        @DefaultValue("16MB") DataSize cacheSize,
+        @DefaultValue("0") int readPoolSize,
+        @DefaultValue("30s") Duration writeTimeout
+) {}
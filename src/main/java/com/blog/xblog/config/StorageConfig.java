@@ -0,0 +1,51 @@
+package com.blog.xblog.config;
+
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import com.blog.xblog.common.storage.LocalStorageBackend;
+import com.blog.xblog.common.storage.S3RequestSigner;
+import com.blog.xblog.common.storage.S3StorageBackend;
+import com.blog.xblog.common.storage.StorageBackend;
+
+/**
+ * Image storage backend. Uploads are always staged in {@code app.upload.dir}; with
+ * {@code app.storage.backend=s3} finished images go to the bucket and image requests are
+ * redirected to presigned URLs, so nodes neither share a disk nor stream image bytes.
+ */
+@Configuration
+@EnableConfigurationProperties(StorageProperties.class)
+public class StorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.backend", havingValue = "local", matchIfMissing = true)
+    public StorageBackend localStorageBackend(@Value("${app.upload.dir:./uploads}") String uploadDir) {
+        return new LocalStorageBackend(Paths.get(uploadDir));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.backend", havingValue = "s3")
+    public StorageBackend s3StorageBackend(StorageProperties properties) {
+        StorageProperties.S3 s3 = properties.s3();
+        if (s3.endpoint() == null || !StringUtils.hasText(s3.endpoint().getHost()) || !StringUtils.hasText(s3.bucket())
+                || !StringUtils.hasText(s3.accessKey()) || !StringUtils.hasText(s3.secretKey())) {
+            throw new IllegalStateException(
+                    "app.storage.s3.endpoint, bucket, access-key and secret-key are required for the s3 backend");
+        }
+        return new S3StorageBackend(
+                s3.endpoint(),
+                s3.bucket(),
+                s3.pathStyle(),
+                new S3RequestSigner(s3.accessKey(), s3.secretKey(), s3.region()),
+                s3.multipartThreshold().toBytes(),
+                (int) s3.partSize().toBytes(),
+                s3.uploadConcurrency(),
+                s3.presignTtl());
+    }
+}
@@ -0,0 +1,42 @@
+package com.blog.xblog.config;
+
+import java.net.URI;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Where stored images live ({@code app.storage.*}): the local upload directory, or an
+ * S3-compatible bucket shared by all app nodes.
+ */
+@ConfigurationProperties(prefix = "app.storage")
+public record StorageProperties(
+        @DefaultValue("local") Backend backend,
+        @DefaultValue S3 s3
+) {
+
+    public enum Backend { LOCAL, S3 }
+
+    /**
+     * @param endpoint            base URL of the object store, e.g. {@code https://s3.eu-west-1.amazonaws.com}
+     * @param pathStyle           address the bucket in the path rather than the host name (MinIO and most stand-ins)
+     * @param multipartThreshold  files larger than this are uploaded in parts
+     * @param partSize            size of each part; S3 requires at least 5MB for all but the last
+     * @param uploadConcurrency   parts uploaded in parallel per backend
+     * @param presignTtl          lifetime of the URLs image requests are redirected to
+     */
+    public record S3(
+            URI endpoint,
+            String bucket,
+            @DefaultValue("us-east-1") String region,
+            String accessKey,
+            String secretKey,
+            @DefaultValue("true") boolean pathStyle,
+            @DefaultValue("16MB") DataSize multipartThreshold,
+            @DefaultValue("8MB") DataSize partSize,
+            @DefaultValue("4") int uploadConcurrency,
+            @DefaultValue("15m") Duration presignTtl
+    ) {}
+}
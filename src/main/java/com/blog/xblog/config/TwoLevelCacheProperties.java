@@ -0,0 +1,35 @@
+package com.blog.xblog.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Per-cache sizing for the two-tier cache ({@code app.cache.*}).
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public record TwoLevelCacheProperties(
+        @DefaultValue("true") boolean redisEnabled,
+        Map<String, Spec> specs
+) {
+
+    private static final Spec DEFAULT_SPEC = new Spec(10_000, Duration.ofMinutes(5), Duration.ofHours(1));
+
+    public Spec spec(String cacheName) {
+        Spec spec = specs != null ? specs.get(cacheName) : null;
+        return spec != null ? spec : DEFAULT_SPEC;
+    }
+
+    /**
+     * @param maxSize   entry bound of the in-process tier
+     * @param localTtl  expire-after-write of the in-process tier
+     * @param remoteTtl expire-after-write of the Redis tier; zero keeps the cache local-only
+     */
+    public record Spec(
+            @DefaultValue("10000") long maxSize,
+            @DefaultValue("5m") Duration localTtl,
+            @DefaultValue("1h") Duration remoteTtl
+    ) {}
+}
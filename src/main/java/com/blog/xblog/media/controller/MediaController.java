@@ -0,0 +1,51 @@
+package com.blog.xblog.media.controller;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.blog.xblog.common.storage.FileResponseWriter;
+import com.blog.xblog.common.storage.FileStorageService;
+import com.blog.xblog.common.storage.StoredImage;
+import com.blog.xblog.media.service.MediaService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/api/media")
+@Tag(name = "Media", description = "Content-addressed images (public, immutable)")
+public class MediaController {
+
+    /** A media name is the hash of its bytes, so a response can never go stale. */
+    static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private final MediaService mediaService;
+    private final FileStorageService fileStorageService;
+
+    public MediaController(MediaService mediaService, FileStorageService fileStorageService) {
+        this.mediaService = mediaService;
+        this.fileStorageService = fileStorageService;
+    }
+
+    @Operation(summary = "Get media", description = "Returns an image by content address, e.g. <sha256>.jpg or <sha256>-thumbnail.jpg. Supports Range and conditional requests.")
+    @GetMapping("/{name:.+}")
+    public void getMedia(
+            @Parameter(description = "Media file name") @PathVariable String name,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        StoredImage image = fileStorageService.getImage(mediaService.resolveName(name), null);
+        if (image == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        FileResponseWriter.write(image, IMMUTABLE, request, response);
+    }
+}
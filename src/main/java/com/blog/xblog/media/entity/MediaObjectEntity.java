@@ -0,0 +1,50 @@
+package com.blog.xblog.media.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A content-addressed file and the number of posts referencing it. When the count drops to zero
+ * the row stays behind as a tombstone, and the file is swept once it has stayed unreferenced for
+ * a grace period.
+ */
+@Entity
+@Table(name = "media_object", indexes = @Index(name = "idx_media_object_released_at", columnList = "released_at"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class MediaObjectEntity {
+
+    /** Hex SHA-256 of the file's bytes. */
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(name = "relative_path", nullable = false)
+    private String relativePath;
+
+    @Column(name = "content_type", nullable = false, length = 64)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    /** When the last reference was dropped; null while referenced. */
+    @Column(name = "released_at")
+    private Instant releasedAt;
+}
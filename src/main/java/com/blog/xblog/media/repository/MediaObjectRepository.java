@@ -0,0 +1,64 @@
+package com.blog.xblog.media.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blog.xblog.media.entity.MediaObjectEntity;
+
+import jakarta.persistence.LockModeType;
+
+public interface MediaObjectRepository extends JpaRepository<MediaObjectEntity, String> {
+
+    /**
+     * Adds a reference, creating the row on first use, as a single statement so concurrent
+     * uploads of the same content cannot both insert.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            insert into media_object (hash, relative_path, content_type, size_bytes, ref_count)
+            values (:hash, :relativePath, :contentType, :sizeBytes, 1)
+            on conflict (hash) do update set ref_count = media_object.ref_count + 1, released_at = null
+            """, nativeQuery = true)
+    int acquire(@Param("hash") String hash,
+                @Param("relativePath") String relativePath,
+                @Param("contentType") String contentType,
+                @Param("sizeBytes") long sizeBytes);
+
+    /** Drops a reference; the last one leaves the row as a tombstone released at {@code now}. */
+    @Transactional
+    @Modifying
+    @Query("""
+            update MediaObjectEntity m
+            set m.refCount = m.refCount - 1,
+                m.releasedAt = case when m.refCount <= 1 then :now else m.releasedAt end
+            where m.hash = :hash and m.refCount > 0
+            """)
+    int release(@Param("hash") String hash, @Param("now") Instant now);
+
+    /** Tombstones released at or before {@code cutoff}, oldest first. */
+    @Transactional(readOnly = true)
+    @Query("""
+            select m from MediaObjectEntity m
+            where m.refCount <= 0 and m.releasedAt <= :cutoff
+            order by m.releasedAt
+            """)
+    List<MediaObjectEntity> findReleasedBefore(@Param("cutoff") Instant cutoff, Limit limit);
+
+    /**
+     * Loads the row locked against concurrent {@link #acquire}s until the transaction ends, so a
+     * sweep can decide and delete the file without an upload reviving it in between.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from MediaObjectEntity m where m.hash = :hash")
+    Optional<MediaObjectEntity> findByHashForUpdate(@Param("hash") String hash);
+}
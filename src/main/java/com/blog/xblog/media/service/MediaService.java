@@ -0,0 +1,206 @@
+package com.blog.xblog.media.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blog.xblog.common.exception.NotFoundException;
+import com.blog.xblog.common.storage.FileStorageService;
+import com.blog.xblog.common.storage.StagedUpload;
+import com.blog.xblog.common.util.DateTimeUtil;
+import com.blog.xblog.media.entity.MediaObjectEntity;
+import com.blog.xblog.media.repository.MediaObjectRepository;
+
+/**
+ * Content-addressed, reference-counted image storage: identical uploads share one file. Dropping
+ * the last reference only leaves a tombstone; a periodic sweep deletes files that have stayed
+ * unreferenced for {@code releaseGrace}. The sweep decides and deletes while holding the row lock,
+ * and an upload takes its reference through that same row before publishing, so with nodes
+ * sharing a bucket an upload either revives the row first (and the sweep keeps the file) or waits
+ * for the delete and then uploads the file again.
+ */
+@Service
+public class MediaService implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaService.class);
+
+    private static final Pattern MEDIA_NAME =
+            Pattern.compile("[0-9a-f]{64}(-(medium|thumbnail))?\\.(jpg|png)");
+    private static final int SWEEP_BATCH = 100;
+
+    private final MediaObjectRepository mediaObjectRepository;
+    private final FileStorageService fileStorageService;
+    private final TransactionTemplate newTransaction;
+    private final Duration releaseGrace;
+    private final ExecutorService releases =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("media-release").factory());
+    private final ScheduledExecutorService sweeper =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("media-sweep").daemon().factory());
+
+    public MediaService(MediaObjectRepository mediaObjectRepository,
+                        FileStorageService fileStorageService,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${app.media.release-grace:10m}") Duration releaseGrace,
+                        @Value("${app.media.sweep-interval:1m}") Duration sweepInterval) {
+        this.mediaObjectRepository = mediaObjectRepository;
+        this.fileStorageService = fileStorageService;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.releaseGrace = releaseGrace;
+        if (sweepInterval.isPositive()) {
+            long interval = sweepInterval.toMillis();
+            sweeper.scheduleWithFixedDelay(this::sweepQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Publishes a staged upload at its content address and takes a reference to it. The reference
+     * is committed in its own short transaction before the file is published, so no sweep can
+     * delete the file once this upload has found it in place; a caller whose own write then
+     * fails must {@link #release} it. Returns null for no upload.
+     */
+    public String store(StagedUpload upload) {
+        if (upload == null) {
+            return null;
+        }
+        String hash = upload.sha256();
+        try {
+            newTransaction.executeWithoutResult(status -> mediaObjectRepository.acquire(
+                    hash, upload.relativePath(), upload.contentType(), upload.size()));
+            try {
+                return fileStorageService.publish(upload);
+            } catch (RuntimeException ex) {
+                newTransaction.executeWithoutResult(status -> mediaObjectRepository.release(hash, DateTimeUtil.now()));
+                throw ex;
+            }
+        } finally {
+            fileStorageService.discard(upload);
+        }
+    }
+
+    /**
+     * Drops a reference taken by {@link #store}; the file is left for the sweep. Runs in its own
+     * transaction, as it is called after the post write commits. Paths from before content
+     * addressing belong to a single post and are deleted outright.
+     */
+    public void release(String relativePath) {
+        if (relativePath == null || relativePath.isBlank()) {
+            return;
+        }
+        if (!FileStorageService.isContentAddressed(relativePath)) {
+            fileStorageService.deletePostImage(relativePath);
+            return;
+        }
+        String hash = hashOf(relativePath);
+        newTransaction.executeWithoutResult(status -> mediaObjectRepository.release(hash, DateTimeUtil.now()));
+    }
+
+    /**
+     * Runs {@link #release} on a background thread. Meant for after-commit callbacks: the
+     * committing thread still holds the write connection there, which the release's own
+     * transaction would otherwise wait for.
+     */
+    public void releaseLater(String relativePath) {
+        if (relativePath == null || relativePath.isBlank()) {
+            return;
+        }
+        releases.execute(() -> {
+            try {
+                release(relativePath);
+            } catch (RuntimeException ex) {
+                log.warn("Releasing image {} failed", relativePath, ex);
+            }
+        });
+    }
+
+    /**
+     * Deletes variants built for an image that lost its last reference while they were being
+     * built and has already been swept; shared and tombstoned images keep them until the sweep.
+     */
+    public void discardVariantsIfUnreferenced(String relativePath) {
+        if (!FileStorageService.isContentAddressed(relativePath)
+                || !mediaObjectRepository.existsById(hashOf(relativePath))) {
+            fileStorageService.deleteVariants(relativePath);
+        }
+    }
+
+    /**
+     * Deletes the files of images released at least {@code releaseGrace} ago and still
+     * unreferenced, with their tombstones. Returns how many were deleted.
+     */
+    public int sweepReleased() {
+        Instant cutoff = DateTimeUtil.now().minus(releaseGrace);
+        List<MediaObjectEntity> released = mediaObjectRepository.findReleasedBefore(cutoff, Limit.of(SWEEP_BATCH));
+        int deleted = 0;
+        for (MediaObjectEntity candidate : released) {
+            if (Boolean.TRUE.equals(newTransaction.execute(status -> deleteIfStillReleased(candidate.getHash(), cutoff)))) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Re-checks the tombstone under the row lock and deletes the file before the row, so an upload
+     * of the same content blocks on the row until the file is gone and then publishes it afresh.
+     */
+    private boolean deleteIfStillReleased(String hash, Instant cutoff) {
+        MediaObjectEntity media = mediaObjectRepository.findByHashForUpdate(hash).orElse(null);
+        if (media == null || media.getRefCount() > 0
+                || media.getReleasedAt() == null || media.getReleasedAt().isAfter(cutoff)) {
+            return false;
+        }
+        fileStorageService.deletePostImage(media.getRelativePath());
+        mediaObjectRepository.delete(media);
+        return true;
+    }
+
+    private void sweepQuietly() {
+        try {
+            int deleted = sweepReleased();
+            if (deleted > 0) {
+                log.debug("Swept {} released images", deleted);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Sweeping released images failed", ex);
+        }
+    }
+
+    /** Lets queued releases finish while the datasource is still open. */
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+        releases.shutdown();
+        try {
+            releases.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Maps a public media name such as {@code <sha256>-thumbnail.jpg} to its storage path. */
+    public String resolveName(String name) {
+        if (name == null || !MEDIA_NAME.matcher(name).matches()) {
+            throw new NotFoundException("Media not found");
+        }
+        return FileStorageService.MEDIA_DIR + "/" + name.substring(0, 2) + "/" + name;
+    }
+
+    private static String hashOf(String relativePath) {
+        return FileStorageService.mediaName(relativePath).substring(0, 64);
+    }
+}
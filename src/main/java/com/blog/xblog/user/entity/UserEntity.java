@@ -11,11 +11,11 @@ import java.util.List;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -25,11 +25,14 @@ import lombok.Setter;
 import lombok.ToString;
 
 import com.blog.xblog.blog.entity.BlogEntity;
+import com.blog.xblog.common.persistence.PooledId;
+import com.blog.xblog.common.util.EmailUtil;
 
 @Entity
 @Table(name = "user_entity", indexes = {
   @Index(name = "idx_username", columnList = "username"),
-  @Index(name = "idx_email", columnList = "email")
+  @Index(name = "idx_email", columnList = "email"),
+  @Index(name = "idx_email_normalized", columnList = "email_normalized", unique = true)
 })
 @NoArgsConstructor
 @Builder
@@ -39,7 +42,7 @@ import com.blog.xblog.blog.entity.BlogEntity;
 @Setter
 public class UserEntity {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @PooledId(sequence = "user_entity_seq")
   private Long id;
 
   @Column(name = "username", unique = true , nullable = false)
@@ -51,6 +54,9 @@ public class UserEntity {
   @Column(name = "email", unique = true, nullable = false)
   private String email;
 
+  @Column(name = "email_normalized")
+  private String emailNormalized;
+
   @OneToMany(mappedBy = "author")
   private List<BlogEntity> blogs = new ArrayList<>();
 
@@ -64,6 +70,7 @@ public class UserEntity {
                       String username,
                       String password,
                       String email,
+                      String emailNormalized,
                       List<BlogEntity> blogs,
                       Instant createdAt,
                       Instant updatedAt) {
@@ -71,12 +78,19 @@ public class UserEntity {
         this.username = username;
         this.password = password;
         this.email = email;
+        this.emailNormalized = emailNormalized != null ? emailNormalized : EmailUtil.normalize(email);
         this.blogs = blogs;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
     }
 
     public UserEntity(String username, String password, String email) {
-        this(null, username, password, email, new ArrayList<>(), Instant.now(), Instant.now());
+        this(null, username, password, email, null, new ArrayList<>(), Instant.now(), Instant.now());
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeEmail() {
+        this.emailNormalized = EmailUtil.normalize(email);
     }
 }
\ No newline at end of file
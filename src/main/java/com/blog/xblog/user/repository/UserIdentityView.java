@@ -0,0 +1,8 @@
+package com.blog.xblog.user.repository;
+
+/**
+ * Identity columns of a user, enough to tell which unique field a registration or profile
+ * update collides with.
+ */
+public record UserIdentityView(Long id, String username, String emailNormalized) {
+}
@@ -1,8 +1,12 @@
 package com.blog.xblog.user.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.blog.xblog.user.entity.UserEntity;
 
@@ -10,5 +14,18 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
     Optional<UserEntity> findByUsername(String username);
 
-    Optional<UserEntity> findByEmail(String email);
+    /**
+     * Users holding the given username or normalized email, resolved through the unique indexes
+     * in a single query (at most two rows).
+     */
+    @Query("""
+            select new com.blog.xblog.user.repository.UserIdentityView(u.id, u.username, u.emailNormalized)
+            from UserEntity u
+            where u.username = :username or u.emailNormalized = :emailNormalized
+            """)
+    List<UserIdentityView> findIdentityConflicts(@Param("username") String username,
+                                                 @Param("emailNormalized") String emailNormalized);
+
+    /** Users created before {@code email_normalized} existed, a batch at a time for the backfill. */
+    List<UserEntity> findByEmailNormalizedIsNull(Limit limit);
 }
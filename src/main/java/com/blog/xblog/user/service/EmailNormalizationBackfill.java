@@ -0,0 +1,74 @@
+package com.blog.xblog.user.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blog.xblog.common.util.EmailUtil;
+import com.blog.xblog.user.entity.UserEntity;
+import com.blog.xblog.user.repository.UserRepository;
+
+/**
+ * Fills {@code email_normalized} for users created before the column existed, then ensures its
+ * unique index: {@code ddl-auto=update} cannot add a unique constraint to an existing SQLite
+ * table. Emails are normalized with {@link EmailUtil#normalize}, as on signup, because SQL's
+ * {@code lower} only folds ASCII on SQLite. Both steps are no-ops once applied; if either fails,
+ * startup fails rather than running without the uniqueness guarantee.
+ */
+@Component
+public class EmailNormalizationBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailNormalizationBackfill.class);
+
+    static final int BATCH_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public EmailNormalizationBackfill(UserRepository userRepository,
+                                      JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            long updated = 0;
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> normalizeBatch());
+                updated += batch;
+            } while (batch == BATCH_SIZE);
+            if (updated > 0) {
+                log.info("Backfilled normalized email for {} users", updated);
+            }
+            jdbcTemplate.execute(
+                    "create unique index if not exists idx_email_normalized on user_entity (email_normalized)");
+        } catch (DataAccessException ex) {
+            throw new IllegalStateException("Could not backfill or index normalized emails: existing users may share "
+                    + "an email that differs only in case. Resolve the duplicates and restart.", ex);
+        }
+    }
+
+    private int normalizeBatch() {
+        List<UserEntity> users = userRepository.findByEmailNormalizedIsNull(Limit.of(BATCH_SIZE));
+        for (UserEntity user : users) {
+            user.setEmailNormalized(EmailUtil.normalize(user.getEmail()));
+        }
+        userRepository.saveAll(users);
+        return users.size();
+    }
+}
@@ -1,9 +1,12 @@
 package com.blog.xblog.user.service;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -11,10 +14,12 @@ import com.blog.xblog.common.exception.BadRequestException;
 import com.blog.xblog.common.exception.NotFoundException;
 import com.blog.xblog.common.mapper.UserMapper;
 import com.blog.xblog.common.util.DateTimeUtil;
+import com.blog.xblog.common.util.EmailUtil;
 import com.blog.xblog.user.dto.UserProfileResponse;
 import com.blog.xblog.user.dto.UserProfileUpdateRequest;
 import com.blog.xblog.user.dto.UserResponse;
 import com.blog.xblog.user.entity.UserEntity;
+import com.blog.xblog.user.repository.UserIdentityView;
 import com.blog.xblog.user.repository.UserRepository;
 
 @Service
@@ -48,34 +53,67 @@ public class UserService {
     @Transactional
     public UserProfileResponse updateProfile(Long id, UserProfileUpdateRequest request) {
         UserEntity user = findUserOrThrow(id);
+        String previousUsername = user.getUsername();
 
-        userRepository.findByUsername(request.username())
-                .filter(u -> !u.getId().equals(id))
-                .ifPresent(u -> { throw new BadRequestException("Username is already taken"); });
+        List<UserIdentityView> conflicts = userRepository
+                .findIdentityConflicts(request.username(), EmailUtil.normalize(request.email()))
+                .stream()
+                .filter(u -> !u.id().equals(id))
+                .toList();
 
-        userRepository.findByEmail(request.email())
-                .filter(u -> !u.getId().equals(id))
-                .ifPresent(u -> { throw new BadRequestException("Email is already in use"); });
+        if (conflicts.stream().anyMatch(u -> u.username().equals(request.username()))) {
+            throw new BadRequestException("Username is already taken");
+        }
+
+        if (!conflicts.isEmpty()) {
+            throw new BadRequestException("Email is already in use");
+        }
 
         UserMapper.applyProfileUpdate(request, user);
         user.setUpdatedAt(DateTimeUtil.now());
         user = userRepository.save(user);
 
-        evictUserCaches(id);
+        evictUserCaches(id, previousUsername);
+        if (!previousUsername.equals(user.getUsername())) {
+            clearAfterCommit("posts");
+            clearAfterCommit("postVersions");
+        }
 
         return UserMapper.toUserProfileResponse(user);
     }
 
-    private void evictUserCaches(Long id) {
+    /**
+     * Evicts once the profile update commits, so a concurrent request cannot re-cache the old
+     * username's principal from not-yet-committed state and hand it to whoever registers that
+     * username next.
+     */
+    private void evictUserCaches(Long id, String username) {
         try {
-            var users = cacheManager.getCache("users");
-            if (users != null) users.evict(id);
-            var profiles = cacheManager.getCache("userProfiles");
-            if (profiles != null) profiles.evict(id);
+            evictAfterCommit("users", id);
+            evictAfterCommit("userProfiles", id);
+            evictAfterCommit("principals", username);
         } catch (Exception ignored) {
         }
     }
 
+    private void evictAfterCommit(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            new TransactionAwareCacheDecorator(cache).evict(key);
+        }
+    }
+
+    /**
+     * Cached posts and post versions carry the author's username. A rename can touch any number
+     * of posts and is rare, so both caches are emptied instead of evicted post by post.
+     */
+    private void clearAfterCommit(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            new TransactionAwareCacheDecorator(cache).clear();
+        }
+    }
+
     private UserEntity findUserOrThrow(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User not found with id " + id));
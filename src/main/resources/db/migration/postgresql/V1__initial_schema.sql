@@ -0,0 +1,49 @@
+-- Schema as Hibernate maps it on SQLite, where ddl-auto=update still manages it.
+
+create sequence user_entity_seq start with 1 increment by 50;
+create sequence blog_seq start with 1 increment by 50;
+
+create table user_entity (
+    id               bigint       not null,
+    username         varchar(255) not null,
+    password         varchar(255) not null,
+    email            varchar(255) not null,
+    email_normalized varchar(255),
+    created_at       timestamp(6) with time zone not null,
+    updated_at       timestamp(6) with time zone not null,
+    constraint pk_user_entity primary key (id),
+    constraint uk_user_entity_username unique (username),
+    constraint uk_user_entity_email unique (email)
+);
+
+create unique index idx_email_normalized on user_entity (email_normalized);
+
+-- Slug families are fetched as range scans between base || '-' and base || '.', which only holds
+-- in byte order: slug_collation is collate "C" so the database's locale does not reorder them.
+create table blog (
+    id                 bigint       not null,
+    title              varchar(255) not null,
+    slug               varchar(255) ${slug_collation} not null,
+    content            text         not null,
+    user_id            bigint       not null,
+    created_at         timestamp(6) with time zone not null,
+    updated_at         timestamp(6) with time zone not null,
+    image_path         varchar(255),
+    image_content_type varchar(64),
+    image_variants     varchar(64),
+    constraint pk_blog primary key (id),
+    constraint fk_blog_user foreign key (user_id) references user_entity (id)
+);
+
+create unique index idx_blog_slug on blog (slug);
+create index idx_blog_user on blog (user_id);
+create index idx_blog_created_id on blog (created_at, id);
+
+create table media_object (
+    hash          varchar(64)  not null,
+    relative_path varchar(255) not null,
+    content_type  varchar(64)  not null,
+    size_bytes    bigint       not null,
+    ref_count     integer      not null,
+    constraint pk_media_object primary key (hash)
+);
@@ -0,0 +1,4 @@
+-- Released images keep their row as a tombstone until the sweep deletes the file.
+alter table media_object add column released_at timestamp(6) with time zone;
+
+create index idx_media_object_released_at on media_object (released_at);
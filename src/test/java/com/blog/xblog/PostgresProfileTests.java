@@ -0,0 +1,63 @@
+package com.blog.xblog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.blog.xblog.blog.entity.BlogEntity;
+import com.blog.xblog.blog.post.repository.BlogRepository;
+import com.blog.xblog.user.entity.UserEntity;
+import com.blog.xblog.user.repository.UserRepository;
+
+/**
+ * Boots the {@code postgres} profile against H2 in PostgreSQL mode: Flyway applies the migrations
+ * and Hibernate validates the entities against them, so the two cannot drift apart. H2 has no
+ * column collations, so the slug column's {@code collate "C"} is left out here.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:xblog;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.flyway.placeholders.slug_collation=",
+		"spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=",
+		"spring.datasource.hikari.data-source-properties.ApplicationName="
+})
+@ActiveProfiles({"test", "postgres"})
+class PostgresProfileTests {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private BlogRepository blogRepository;
+
+	@Test
+	void allocatesIdsFromSequencesAndFindsSlugFamilies() {
+		UserEntity author = userRepository.save(new UserEntity("pg-author", "hash", "pg-author@example.com"));
+		List<BlogEntity> posts = blogRepository.saveAll(List.of(
+				post("hello", author), post("hello-2", author), post("hello-world", author), post("hellox", author)));
+
+		assertThat(author.getId()).isNotNull();
+		assertThat(posts).extracting(BlogEntity::getId).doesNotContainNull().doesNotHaveDuplicates();
+		assertThat(blogRepository.findSlugFamily("hello"))
+				.containsExactlyInAnyOrder("hello", "hello-2", "hello-world");
+	}
+
+	private static BlogEntity post(String slug, UserEntity author) {
+		Instant now = Instant.now();
+		return BlogEntity.builder()
+				.title(slug)
+				.slug(slug)
+				.content("content")
+				.author(author)
+				.createdAt(now)
+				.updatedAt(now)
+				.build();
+	}
+}
@@ -0,0 +1,150 @@
+package com.blog.xblog.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.blog.xblog.auth.dto.AuthResponse;
+import com.blog.xblog.auth.dto.RegistrationRequest;
+import com.blog.xblog.common.exception.BadRequestException;
+import com.blog.xblog.common.security.CustomUserDetails;
+import com.blog.xblog.common.security.JwtTokenProvider;
+import com.blog.xblog.user.entity.UserEntity;
+import com.blog.xblog.user.repository.UserIdentityView;
+import com.blog.xblog.user.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        authService = new AuthService(userRepository, passwordEncoder, authenticationManager, jwtTokenProvider,
+                transactionManager);
+    }
+
+    @Nested
+    @DisplayName("register")
+    class Register {
+
+        @Test
+        @DisplayName("when username taken throws BadRequestException without saving")
+        void whenUsernameTaken_throwsBadRequest() {
+            when(userRepository.findIdentityConflicts("alice", "new@example.com"))
+                    .thenReturn(List.of(new UserIdentityView(1L, "alice", "alice@example.com")));
+
+            assertThatThrownBy(() -> authService.register(new RegistrationRequest("alice", "new@example.com", "password123")))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Username is already taken");
+            verify(userRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("when email taken in another case throws BadRequestException")
+        void whenEmailTakenIgnoringCase_throwsBadRequest() {
+            when(userRepository.findIdentityConflicts("bob", "alice@example.com"))
+                    .thenReturn(List.of(new UserIdentityView(1L, "alice", "alice@example.com")));
+
+            assertThatThrownBy(() -> authService.register(new RegistrationRequest("bob", " Alice@Example.COM ", "password123")))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Email is already in use");
+            verify(userRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("when username and email free saves user with normalized email and returns token")
+        void whenFree_savesAndReturnsToken() {
+            when(userRepository.findIdentityConflicts("bob", "bob@example.com")).thenReturn(List.of());
+            when(passwordEncoder.encode("password123")).thenReturn("encoded");
+            when(userRepository.save(any(UserEntity.class))).thenAnswer(inv -> {
+                UserEntity saved = inv.getArgument(0);
+                saved.setId(2L);
+                return saved;
+            });
+            when(jwtTokenProvider.generateToken(any(Authentication.class))).thenReturn("jwt-token");
+
+            AuthResponse response = authService.register(new RegistrationRequest("bob", "Bob@Example.com", "password123"));
+
+            ArgumentCaptor<UserEntity> captor = ArgumentCaptor.forClass(UserEntity.class);
+            verify(userRepository).save(captor.capture());
+            assertThat(captor.getValue().getEmailNormalized()).isEqualTo("bob@example.com");
+            assertThat(response.accessToken()).isEqualTo("jwt-token");
+            assertThat(response.user().id()).isEqualTo(2L);
+        }
+
+        @Test
+        @DisplayName("hashes the password before opening the write transaction")
+        void hashesBeforeTransaction() {
+            when(userRepository.findIdentityConflicts("bob", "bob@example.com")).thenReturn(List.of());
+            when(passwordEncoder.encode("password123")).thenReturn("encoded");
+            when(userRepository.save(any(UserEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            authService.register(new RegistrationRequest("bob", "bob@example.com", "password123"));
+
+            InOrder order = inOrder(passwordEncoder, transactionManager, userRepository);
+            order.verify(passwordEncoder).encode("password123");
+            order.verify(transactionManager).getTransaction(any());
+            order.verify(userRepository).findIdentityConflicts("bob", "bob@example.com");
+            order.verify(userRepository).save(any(UserEntity.class));
+            order.verify(transactionManager).commit(any());
+        }
+
+        @Test
+        @DisplayName("issues the token from the saved user without re-authenticating")
+        void issuesTokenWithoutReauthenticating() {
+            when(userRepository.findIdentityConflicts("bob", "bob@example.com")).thenReturn(List.of());
+            when(passwordEncoder.encode("password123")).thenReturn("encoded");
+            when(userRepository.save(any(UserEntity.class))).thenAnswer(inv -> {
+                UserEntity saved = inv.getArgument(0);
+                saved.setId(2L);
+                return saved;
+            });
+            when(jwtTokenProvider.generateToken(any(Authentication.class))).thenReturn("jwt-token");
+
+            authService.register(new RegistrationRequest("bob", "bob@example.com", "password123"));
+
+            ArgumentCaptor<Authentication> captor = ArgumentCaptor.forClass(Authentication.class);
+            verify(jwtTokenProvider).generateToken(captor.capture());
+            assertThat(captor.getValue().isAuthenticated()).isTrue();
+            assertThat(((CustomUserDetails) captor.getValue().getPrincipal()).getId()).isEqualTo(2L);
+            verify(authenticationManager, never()).authenticate(any());
+            verify(passwordEncoder, never()).matches(any(), any());
+        }
+    }
+}
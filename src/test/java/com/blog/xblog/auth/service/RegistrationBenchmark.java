@@ -0,0 +1,119 @@
+package com.blog.xblog.auth.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.blog.xblog.auth.dto.AuthResponse;
+import com.blog.xblog.auth.dto.RegistrationRequest;
+import com.blog.xblog.common.security.CustomUserDetails;
+import com.blog.xblog.common.security.JwtAlgorithm;
+import com.blog.xblog.common.security.JwtProperties;
+import com.blog.xblog.common.security.JwtTokenProvider;
+import com.blog.xblog.user.entity.UserEntity;
+import com.blog.xblog.user.repository.UserRepository;
+
+/**
+ * Registration throughput with real BCrypt and JWT signing and an in-memory repository.
+ * {@code registerThenAuthenticate} replays the {@code authenticationManager.authenticate(...)}
+ * call that {@link AuthService#register} used to make after saving; {@code register} is the
+ * current path. Run with {@link #main} (see README, Benchmarks).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class RegistrationBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, UserEntity> users = new ConcurrentHashMap<>();
+    private AuthService authService;
+    private AuthenticationManager authenticationManager;
+
+    @Setup
+    public void setUp() {
+        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findIdentityConflicts(anyString(), anyString())).thenReturn(List.of());
+        when(userRepository.save(any(UserEntity.class))).thenAnswer(inv -> {
+            UserEntity user = inv.getArgument(0);
+            user.setId(sequence.get());
+            users.put(user.getUsername(), user);
+            return user;
+        });
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(username -> {
+            UserEntity user = users.get(username);
+            if (user == null) {
+                throw new UsernameNotFoundException(username);
+            }
+            return CustomUserDetails.fromUserEntity(user);
+        });
+        provider.setPasswordEncoder(passwordEncoder);
+        authenticationManager = new ProviderManager(provider);
+
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(
+                new JwtProperties(null, null, JwtAlgorithm.RS256, null, null, 86_400_000L, 10_000L));
+        authService = new AuthService(userRepository, passwordEncoder, authenticationManager, jwtTokenProvider,
+                mock(PlatformTransactionManager.class, withSettings().stubOnly()));
+    }
+
+    @Benchmark
+    public AuthResponse register() {
+        return authService.register(nextRequest());
+    }
+
+    @Benchmark
+    public AuthResponse registerThenAuthenticate() {
+        RegistrationRequest request = nextRequest();
+        AuthResponse response = authService.register(request);
+        authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(request.username(), request.password()));
+        return response;
+    }
+
+    private RegistrationRequest nextRequest() {
+        long n = sequence.incrementAndGet();
+        return new RegistrationRequest("user" + n, "user" + n + "@example.com", "password-" + n);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RegistrationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -1,12 +1,15 @@
 package com.blog.xblog.blog.post.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
@@ -15,10 +18,16 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.List;
 
@@ -33,25 +42,36 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.blog.xblog.blog.post.dto.PostCreateRequest;
+import com.blog.xblog.blog.post.dto.PostImportError;
+import com.blog.xblog.blog.post.dto.PostImportResponse;
 import com.blog.xblog.blog.post.dto.PostResponse;
+import com.blog.xblog.blog.post.dto.PostSummaryResponse;
 import com.blog.xblog.blog.post.dto.PostUpdateRequest;
+import com.blog.xblog.blog.post.service.PostExportService;
+import com.blog.xblog.blog.post.service.PostImportService;
 import com.blog.xblog.blog.post.service.PostService;
+import com.blog.xblog.common.dto.PageResponse;
+import com.blog.xblog.common.exception.BadRequestException;
 import com.blog.xblog.common.exception.GlobalExceptionHandler;
 import com.blog.xblog.common.exception.NotFoundException;
 import com.blog.xblog.common.security.CustomUserDetails;
+import com.blog.xblog.common.storage.ImageVariant;
+import com.blog.xblog.common.storage.StoredImage;
+import com.blog.xblog.common.util.ETagUtil;
 
 @ExtendWith(MockitoExtension.class)
 class PostControllerTest {
@@ -61,6 +81,12 @@ class PostControllerTest {
     @Mock
     private PostService postService;
 
+    @Mock
+    private PostExportService postExportService;
+
+    @Mock
+    private PostImportService postImportService;
+
     private static final Instant NOW = Instant.parse("2026-02-14T12:00:00Z");
     private static final PostResponse SAMPLE_POST = new PostResponse(
             1L, "My Title", "my-title", "Content here", 10L, "alice",
@@ -68,14 +94,17 @@ class PostControllerTest {
     private static final PostResponse SAMPLE_POST_WITH_IMAGE = new PostResponse(
             1L, "My Title", "my-title", "Content here", 10L, "alice",
             "/api/posts/1/image", NOW, NOW);
+    private static final PostSummaryResponse SAMPLE_SUMMARY = new PostSummaryResponse(
+            1L, "My Title", "my-title", 10L, "alice", null, NOW, NOW);
     private static final long PRINCIPAL_ID = 1L;
     private static final UserDetails PRINCIPAL = new CustomUserDetails(PRINCIPAL_ID, "alice", "password");
 
     @BeforeEach
     void setUp() {
         SecurityContextHolder.clearContext();
-        PostController controller = new PostController(postService);
+        PostController controller = new PostController(postService, postExportService, postImportService);
         mockMvc = standaloneSetup(controller)
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .addFilter(new OncePerRequestFilter() {
                     @Override
@@ -110,29 +139,123 @@ class PostControllerTest {
     class ListPosts {
 
         @Test
-        @DisplayName("returns 200 and list of posts when no auth")
-        void returns200AndListWithoutAuth() throws Exception {
-            when(postService.listPosts()).thenReturn(List.of(SAMPLE_POST));
+        @DisplayName("returns 200 and page of posts when no auth")
+        void returns200AndPageWithoutAuth() throws Exception {
+            PageResponse<PostSummaryResponse> page = PageResponse.<PostSummaryResponse>builder()
+                    .content(List.of(SAMPLE_SUMMARY))
+                    .pageSize(20)
+                    .last(false)
+                    .nextCursor("next")
+                    .build();
+            when(postService.listPosts(null, 20)).thenReturn(page);
 
             mockMvc.perform(get("/api/posts"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
                     .andExpect(jsonPath("$.message").value("Posts list"))
-                    .andExpect(jsonPath("$.data.length()").value(1))
-                    .andExpect(jsonPath("$.data[0].id").value(1))
-                    .andExpect(jsonPath("$.data[0].title").value("My Title"))
-                    .andExpect(jsonPath("$.data[0].slug").value("my-title"))
-                    .andExpect(jsonPath("$.data[0].authorUsername").value("alice"));
+                    .andExpect(jsonPath("$.data.content.length()").value(1))
+                    .andExpect(jsonPath("$.data.content[0].id").value(1))
+                    .andExpect(jsonPath("$.data.content[0].title").value("My Title"))
+                    .andExpect(jsonPath("$.data.content[0].slug").value("my-title"))
+                    .andExpect(jsonPath("$.data.content[0].authorUsername").value("alice"))
+                    .andExpect(jsonPath("$.data.content[0].content").doesNotExist())
+                    .andExpect(jsonPath("$.data.nextCursor").value("next"));
         }
 
         @Test
-        @DisplayName("returns 200 and empty list when no posts")
-        void returns200AndEmptyList() throws Exception {
-            when(postService.listPosts()).thenReturn(List.of());
+        @DisplayName("returns 304 when If-None-Match matches the page ETag")
+        void returns304WhenPageUnchanged() throws Exception {
+            PageResponse<PostSummaryResponse> page = PageResponse.<PostSummaryResponse>builder()
+                    .content(List.of(SAMPLE_SUMMARY))
+                    .pageSize(20)
+                    .build();
+            when(postService.listPosts(null, 20)).thenReturn(page);
+
+            String etag = mockMvc.perform(get("/api/posts"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
 
-            mockMvc.perform(get("/api/posts"))
+            mockMvc.perform(get("/api/posts").header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        @DisplayName("passes cursor and size through")
+        void passesCursorAndSize() throws Exception {
+            PageResponse<PostSummaryResponse> page = PageResponse.<PostSummaryResponse>builder()
+                    .content(List.of())
+                    .pageSize(5)
+                    .last(true)
+                    .build();
+            when(postService.listPosts("abc", 5)).thenReturn(page);
+
+            mockMvc.perform(get("/api/posts").param("cursor", "abc").param("size", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.content.length()").value(0))
+                    .andExpect(jsonPath("$.data.last").value(true));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/posts/export")
+    class ExportPosts {
+
+        @Test
+        @DisplayName("streams NDJSON written by the export service")
+        void streamsNdjson() throws Exception {
+            when(postExportService.exportPosts(any(OutputStream.class))).thenAnswer(invocation -> {
+                OutputStream out = invocation.getArgument(0);
+                out.write("{\"id\":1}\n{\"id\":2}\n".getBytes());
+                return 2L;
+            });
+
+            MvcResult result = mockMvc.perform(get("/api/posts/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type", MediaType.APPLICATION_NDJSON_VALUE))
+                    .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/posts/import")
+    class ImportPosts {
+
+        @Test
+        @DisplayName("streams the request body to the service and returns its summary")
+        void streamsBodyToService() throws Exception {
+            String ndjson = "{\"title\":\"One\",\"content\":\"A\"}\n{\"title\":\"\",\"content\":\"B\"}\n";
+            when(postImportService.importPosts(eq(PRINCIPAL_ID), any())).thenAnswer(invocation -> {
+                assertThat(invocation.getArgument(1, InputStream.class).readAllBytes()).asString().isEqualTo(ndjson);
+                return new PostImportResponse(1, 1, List.of(new PostImportError(1, "title: must not be blank")));
+            });
+
+            mockMvc.perform(post("/api/posts/import")
+                            .with(withPrincipal())
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(ndjson))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.message").value("Posts imported with errors"))
+                    .andExpect(jsonPath("$.data.imported").value(1))
+                    .andExpect(jsonPath("$.data.errors[0].index").value(1));
+        }
+
+        @Test
+        @DisplayName("accepts a JSON array body")
+        void acceptsJsonArray() throws Exception {
+            when(postImportService.importPosts(eq(PRINCIPAL_ID), any())).thenReturn(new PostImportResponse(2, 0, List.of()));
+
+            mockMvc.perform(post("/api/posts/import")
+                            .with(withPrincipal())
+                            .contentType(APPLICATION_JSON)
+                            .content("[{\"title\":\"One\",\"content\":\"A\"},{\"title\":\"Two\",\"content\":\"B\"}]"))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$.data.length()").value(0));
+                    .andExpect(jsonPath("$.message").value("Posts imported"))
+                    .andExpect(jsonPath("$.data.failed").value(0));
         }
     }
 
@@ -143,10 +266,13 @@ class PostControllerTest {
         @Test
         @DisplayName("returns 200 and post when id exists")
         void returns200WhenExists() throws Exception {
+            when(postService.getPostVersion(1L)).thenReturn(NOW);
             when(postService.getPost(1L)).thenReturn(SAMPLE_POST);
 
             mockMvc.perform(get("/api/posts/1"))
                     .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", ETagUtil.forVersion(1L, NOW)))
+                    .andExpect(header().dateValue("Last-Modified", NOW.toEpochMilli()))
                     .andExpect(jsonPath("$.success").value(true))
                     .andExpect(jsonPath("$.data.id").value(1))
                     .andExpect(jsonPath("$.data.title").value("My Title"))
@@ -156,6 +282,7 @@ class PostControllerTest {
         @Test
         @DisplayName("returns 200 with imageUrl when post has image")
         void returns200WithImageUrl() throws Exception {
+            when(postService.getPostVersion(1L)).thenReturn(NOW);
             when(postService.getPost(1L)).thenReturn(SAMPLE_POST_WITH_IMAGE);
 
             mockMvc.perform(get("/api/posts/1"))
@@ -166,57 +293,192 @@ class PostControllerTest {
         @Test
         @DisplayName("returns 404 when post not found")
         void returns404WhenNotFound() throws Exception {
-            when(postService.getPost(999L)).thenThrow(new NotFoundException("Post not found with id 999"));
+            when(postService.getPostVersion(999L)).thenThrow(new NotFoundException("Post not found with id 999"));
 
             mockMvc.perform(get("/api/posts/999"))
                     .andExpect(status().isNotFound())
                     .andExpect(jsonPath("$.success").value(false))
                     .andExpect(jsonPath("$.message").value("Post not found with id 999"));
         }
+
+        @Test
+        @DisplayName("returns 304 without loading the post when If-None-Match matches")
+        void returns304WhenETagMatches() throws Exception {
+            when(postService.getPostVersion(1L)).thenReturn(NOW);
+
+            mockMvc.perform(get("/api/posts/1").header("If-None-Match", ETagUtil.forVersion(1L, NOW)))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", ETagUtil.forVersion(1L, NOW)))
+                    .andExpect(content().string(""));
+
+            verify(postService, never()).getPost(anyLong());
+        }
+
+        @Test
+        @DisplayName("returns 304 when not modified since If-Modified-Since")
+        void returns304WhenNotModifiedSince() throws Exception {
+            when(postService.getPostVersion(1L)).thenReturn(NOW);
+
+            mockMvc.perform(get("/api/posts/1").header("If-Modified-Since", "Sat, 14 Feb 2026 12:00:00 GMT"))
+                    .andExpect(status().isNotModified());
+
+            verify(postService, never()).getPost(anyLong());
+        }
+
+        @Test
+        @DisplayName("returns 200 when the post changed since the client's ETag")
+        void returns200WhenETagStale() throws Exception {
+            Instant edited = NOW.plusSeconds(5);
+            when(postService.getPostVersion(1L)).thenReturn(edited);
+            when(postService.getPost(1L)).thenReturn(SAMPLE_POST);
+
+            mockMvc.perform(get("/api/posts/1").header("If-None-Match", ETagUtil.forVersion(1L, NOW)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", ETagUtil.forVersion(1L, edited)));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/posts/slug/{slug}")
+    class GetPostBySlug {
+
+        @Test
+        @DisplayName("returns 200 and post when slug exists")
+        void returns200WhenExists() throws Exception {
+            when(postService.getPostBySlug("my-title")).thenReturn(SAMPLE_POST);
+
+            mockMvc.perform(get("/api/posts/slug/my-title"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.id").value(1))
+                    .andExpect(jsonPath("$.data.slug").value(SAMPLE_POST.slug()));
+        }
+
+        @Test
+        @DisplayName("returns 404 when slug not found")
+        void returns404WhenNotFound() throws Exception {
+            when(postService.getPostBySlug("missing")).thenThrow(new NotFoundException("Post not found with slug missing"));
+
+            mockMvc.perform(get("/api/posts/slug/missing"))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.message").value("Post not found with slug missing"));
+        }
     }
 
     @Nested
     @DisplayName("GET /api/posts/{id}/image")
     class GetPostImage {
 
+        @TempDir
+        Path dir;
+
+        private StoredImage storedImage(String name, byte[] bytes, MediaType contentType) throws IOException {
+            Path file = Files.write(dir.resolve(name), bytes);
+            return new StoredImage(file, contentType, bytes.length, NOW, "\"img-1\"");
+        }
+
         @Test
-        @DisplayName("returns 200 with image and Content-Type when image exists")
+        @DisplayName("returns 200 with image and stored Content-Type when image exists")
         void returns200WithImage() throws Exception {
-            Resource resource = new ByteArrayResource("image-bytes".getBytes()) {
-                @Override
-                public String getFilename() {
-                    return "x.jpg";
-                }
-            };
-            when(postService.getPostImage(1L)).thenReturn(resource);
+            when(postService.getPostImage(1L, ImageVariant.ORIGINAL)).thenReturn(storedImage("x.jpg", "image-bytes".getBytes(), MediaType.IMAGE_JPEG));
 
             mockMvc.perform(get("/api/posts/1/image"))
                     .andExpect(status().isOk())
                     .andExpect(header().string("Content-Type", MediaType.IMAGE_JPEG_VALUE))
                     .andExpect(header().string("Cache-Control", "max-age=86400"))
+                    .andExpect(header().string("Accept-Ranges", "bytes"))
+                    .andExpect(header().string("ETag", "\"img-1\""))
+                    .andExpect(header().longValue("Content-Length", 11))
                     .andExpect(content().bytes("image-bytes".getBytes()));
         }
 
         @Test
-        @DisplayName("returns 200 with PNG Content-Type when filename is png")
-        void returns200WithPngContentType() throws Exception {
-            Resource resource = new ByteArrayResource(new byte[0]) {
-                @Override
-                public String getFilename() {
-                    return "x.png";
-                }
-            };
-            when(postService.getPostImage(1L)).thenReturn(resource);
+        @DisplayName("redirects to the presigned URL when the image is in a remote store")
+        void redirectsToRemoteStore() throws Exception {
+            URI location = URI.create("https://bucket.example.com/media/ab/abc.jpg?X-Amz-Signature=sig");
+            when(postService.getPostImage(1L, ImageVariant.ORIGINAL))
+                    .thenReturn(StoredImage.redirect(location, MediaType.IMAGE_JPEG));
+
+            mockMvc.perform(get("/api/posts/1/image"))
+                    .andExpect(status().isFound())
+                    .andExpect(header().string("Location", location.toString()))
+                    .andExpect(header().string("Cache-Control", "private, max-age=60"))
+                    .andExpect(content().bytes(new byte[0]));
+        }
+
+        @Test
+        @DisplayName("uses the stored content type rather than the file name")
+        void usesStoredContentType() throws Exception {
+            when(postService.getPostImage(1L, ImageVariant.ORIGINAL)).thenReturn(storedImage("x.jpg", new byte[] {1}, MediaType.IMAGE_PNG));
 
             mockMvc.perform(get("/api/posts/1/image"))
                     .andExpect(status().isOk())
                     .andExpect(header().string("Content-Type", MediaType.IMAGE_PNG_VALUE));
         }
 
+        @Test
+        @DisplayName("returns 206 with the requested byte range")
+        void returns206ForRange() throws Exception {
+            when(postService.getPostImage(1L, ImageVariant.ORIGINAL)).thenReturn(storedImage("x.jpg", "image-bytes".getBytes(), MediaType.IMAGE_JPEG));
+
+            mockMvc.perform(get("/api/posts/1/image").header("Range", "bytes=6-"))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(header().string("Content-Range", "bytes 6-10/11"))
+                    .andExpect(header().longValue("Content-Length", 5))
+                    .andExpect(content().bytes("bytes".getBytes()));
+        }
+
+        @Test
+        @DisplayName("returns 416 when the range starts past the end")
+        void returns416ForUnsatisfiableRange() throws Exception {
+            when(postService.getPostImage(1L, ImageVariant.ORIGINAL)).thenReturn(storedImage("x.jpg", "image-bytes".getBytes(), MediaType.IMAGE_JPEG));
+
+            mockMvc.perform(get("/api/posts/1/image").header("Range", "bytes=50-60"))
+                    .andExpect(status().isRequestedRangeNotSatisfiable())
+                    .andExpect(header().string("Content-Range", "bytes */11"));
+        }
+
+        @Test
+        @DisplayName("ignores Range when If-Range does not match")
+        void ignoresRangeWhenIfRangeStale() throws Exception {
+            when(postService.getPostImage(1L, ImageVariant.ORIGINAL)).thenReturn(storedImage("x.jpg", "image-bytes".getBytes(), MediaType.IMAGE_JPEG));
+
+            mockMvc.perform(get("/api/posts/1/image").header("Range", "bytes=6-").header("If-Range", "\"old\""))
+                    .andExpect(status().isOk())
+                    .andExpect(content().bytes("image-bytes".getBytes()));
+        }
+
+        @Test
+        @DisplayName("returns 304 when If-None-Match matches")
+        void returns304WhenETagMatches() throws Exception {
+            when(postService.getPostImage(1L, ImageVariant.ORIGINAL)).thenReturn(storedImage("x.jpg", "image-bytes".getBytes(), MediaType.IMAGE_JPEG));
+
+            mockMvc.perform(get("/api/posts/1/image").header("If-None-Match", "\"img-1\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        @DisplayName("passes the requested size through")
+        void passesSizeThrough() throws Exception {
+            when(postService.getPostImage(1L, ImageVariant.THUMBNAIL))
+                    .thenReturn(storedImage("x-thumbnail.jpg", "thumb".getBytes(), MediaType.IMAGE_JPEG));
+
+            mockMvc.perform(get("/api/posts/1/image").param("size", "thumbnail"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().bytes("thumb".getBytes()));
+        }
+
+        @Test
+        @DisplayName("returns 400 for an unknown size")
+        void returns400ForUnknownSize() throws Exception {
+            mockMvc.perform(get("/api/posts/1/image").param("size", "huge"))
+                    .andExpect(status().isBadRequest());
+        }
+
         @Test
         @DisplayName("returns 404 when post has no image")
         void returns404WhenNoImage() throws Exception {
-            when(postService.getPostImage(1L)).thenReturn(null);
+            when(postService.getPostImage(1L, ImageVariant.ORIGINAL)).thenReturn(null);
 
             mockMvc.perform(get("/api/posts/1/image"))
                     .andExpect(status().isNotFound());
@@ -225,7 +487,7 @@ class PostControllerTest {
         @Test
         @DisplayName("returns 404 when post not found")
         void returns404WhenPostNotFound() throws Exception {
-            when(postService.getPostImage(999L)).thenThrow(new NotFoundException("Post not found with id 999"));
+            when(postService.getPostImage(999L, ImageVariant.ORIGINAL)).thenThrow(new NotFoundException("Post not found with id 999"));
 
             mockMvc.perform(get("/api/posts/999/image"))
                     .andExpect(status().isNotFound());
@@ -376,6 +638,43 @@ class PostControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("PUT /api/posts/{id}/image (raw body)")
+    class ReplacePostImage {
+
+        @Test
+        @DisplayName("streams the request body to the service")
+        void streamsBodyToService() throws Exception {
+            byte[] bytes = { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 1 };
+            when(postService.replacePostImage(eq(1L), eq(PRINCIPAL_ID), any())).thenAnswer(invocation -> {
+                assertThat(invocation.getArgument(2, InputStream.class).readAllBytes()).isEqualTo(bytes);
+                return SAMPLE_POST_WITH_IMAGE;
+            });
+
+            mockMvc.perform(put("/api/posts/1/image")
+                            .with(withPrincipal())
+                            .contentType(MediaType.IMAGE_JPEG)
+                            .content(bytes))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.message").value("Post image updated"))
+                    .andExpect(jsonPath("$.data.imageUrl").value("/api/posts/1/image"));
+        }
+
+        @Test
+        @DisplayName("returns 400 when the service rejects the image")
+        void returns400WhenRejected() throws Exception {
+            when(postService.replacePostImage(eq(1L), eq(PRINCIPAL_ID), any()))
+                    .thenThrow(new BadRequestException("Only JPEG and PNG images are allowed"));
+
+            mockMvc.perform(put("/api/posts/1/image")
+                            .with(withPrincipal())
+                            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                            .content("GIF89a".getBytes()))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Only JPEG and PNG images are allowed"));
+        }
+    }
+
     @Nested
     @DisplayName("DELETE /api/posts/{id}")
     class DeletePost {
@@ -0,0 +1,85 @@
+package com.blog.xblog.blog.post.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.blog.xblog.blog.entity.BlogEntity;
+import com.blog.xblog.blog.post.repository.BlogRepository;
+import com.blog.xblog.user.entity.UserEntity;
+
+import jakarta.persistence.EntityManager;
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+class PostExportServiceTest {
+
+    @Mock
+    private BlogRepository blogRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private PostExportService postExportService;
+
+    private static final Instant NOW = Instant.parse("2026-02-14T12:00:00Z");
+    private static final UserEntity AUTHOR = UserEntity.builder().id(10L).username("alice").build();
+
+    @BeforeEach
+    void setUp() {
+        postExportService = new PostExportService(blogRepository, entityManager, JsonMapper.builder().build());
+    }
+
+    @Test
+    @DisplayName("writes one JSON document per line")
+    void writesOneLinePerPost() throws Exception {
+        when(blogRepository.streamAllWithAuthor()).thenReturn(Stream.of(post(1L), post(2L)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = postExportService.exportPosts(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"id\":1", "\"authorUsername\":\"alice\"");
+        assertThat(lines[1]).contains("\"id\":2");
+    }
+
+    @Test
+    @DisplayName("detaches entities after every batch")
+    void clearsPersistenceContextPerBatch() throws Exception {
+        when(blogRepository.streamAllWithAuthor())
+                .thenReturn(LongStream.rangeClosed(1, 1200).mapToObj(PostExportServiceTest::post));
+
+        long count = postExportService.exportPosts(new ByteArrayOutputStream());
+
+        assertThat(count).isEqualTo(1200);
+        verify(entityManager, times(2)).clear();
+    }
+
+    private static BlogEntity post(long id) {
+        return BlogEntity.builder()
+                .id(id)
+                .title("Title " + id)
+                .slug("title-" + id)
+                .content("Content")
+                .author(AUTHOR)
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+    }
+}
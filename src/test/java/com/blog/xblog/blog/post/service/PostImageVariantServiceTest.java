@@ -0,0 +1,128 @@
+package com.blog.xblog.blog.post.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.blog.xblog.blog.post.repository.BlogRepository;
+import com.blog.xblog.common.storage.FileStorageService;
+import com.blog.xblog.common.storage.LocalStorageBackend;
+import com.blog.xblog.media.service.MediaService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class PostImageVariantServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    @Mock
+    private BlogRepository blogRepository;
+
+    @Mock
+    private MediaService mediaService;
+
+    private PostImageVariantService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PostImageVariantService(blogRepository, new FileStorageService(uploadDir.toString(), new LocalStorageBackend(uploadDir)),
+                mediaService, new SimpleMeterRegistry(), 1, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    @DisplayName("builds medium and thumbnail variants of a large JPEG and records them")
+    void buildsAndRecordsVariants() throws IOException {
+        writeImage("posts/1/a.jpg", "jpeg", 2400, 1200, BufferedImage.TYPE_INT_RGB);
+        when(blogRepository.updateImageVariants(1L, "posts/1/a.jpg", "medium,thumbnail")).thenReturn(1);
+
+        service.process(1L, "posts/1/a.jpg");
+
+        assertThat(dimensions("posts/1/a-medium.jpg")).containsExactly(1024, 512);
+        assertThat(dimensions("posts/1/a-thumbnail.jpg")).containsExactly(320, 160);
+        verify(blogRepository).updateImageVariants(1L, "posts/1/a.jpg", "medium,thumbnail");
+    }
+
+    @Test
+    @DisplayName("keeps PNG as PNG and skips variants larger than the source")
+    void keepsPngAndSkipsLargerVariants() throws IOException {
+        writeImage("posts/2/b.png", "png", 600, 400, BufferedImage.TYPE_INT_ARGB);
+        when(blogRepository.updateImageVariants(2L, "posts/2/b.png", "thumbnail")).thenReturn(1);
+
+        service.process(2L, "posts/2/b.png");
+
+        assertThat(Files.exists(uploadDir.resolve("posts/2/b-medium.png"))).isFalse();
+        assertThat(dimensions("posts/2/b-thumbnail.png")).containsExactly(320, 213);
+        assertThat(ImageIO.read(uploadDir.resolve("posts/2/b-thumbnail.png").toFile()).getColorModel().hasAlpha()).isTrue();
+    }
+
+    @Test
+    @DisplayName("records nothing when the image is already thumbnail-sized")
+    void recordsNothingForSmallImage() throws IOException {
+        writeImage("posts/3/c.jpg", "jpeg", 200, 100, BufferedImage.TYPE_INT_RGB);
+
+        service.process(3L, "posts/3/c.jpg");
+
+        verify(blogRepository, never()).updateImageVariants(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("hands the variants back when the image was replaced meanwhile")
+    void discardsVariantsOfReplacedImage() throws IOException {
+        writeImage("posts/4/d.jpg", "jpeg", 800, 800, BufferedImage.TYPE_INT_RGB);
+        when(blogRepository.updateImageVariants(4L, "posts/4/d.jpg", "thumbnail")).thenReturn(0);
+
+        service.process(4L, "posts/4/d.jpg");
+
+        verify(mediaService).discardVariantsIfUnreferenced("posts/4/d.jpg");
+    }
+
+    @Test
+    @DisplayName("submit builds variants in the background")
+    void submitRunsInBackground() throws IOException {
+        writeImage("posts/5/e.jpg", "jpeg", 1000, 500, BufferedImage.TYPE_INT_RGB);
+        when(blogRepository.updateImageVariants(any(), any(), any())).thenReturn(1);
+
+        service.submit(5L, "posts/5/e.jpg");
+
+        verify(blogRepository, timeout(5000)).updateImageVariants(5L, "posts/5/e.jpg", "thumbnail");
+    }
+
+    private void writeImage(String relativePath, String format, int width, int height, int type) throws IOException {
+        Path path = uploadDir.resolve(relativePath);
+        Files.createDirectories(path.getParent());
+        ImageIO.write(new BufferedImage(width, height, type), format, path.toFile());
+    }
+
+    private int[] dimensions(String relativePath) throws IOException {
+        BufferedImage image = ImageIO.read(uploadDir.resolve(relativePath).toFile());
+        return new int[] {image.getWidth(), image.getHeight()};
+    }
+}
@@ -0,0 +1,220 @@
+package com.blog.xblog.blog.post.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.blog.xblog.blog.entity.BlogEntity;
+import com.blog.xblog.blog.post.dto.PostImportError;
+import com.blog.xblog.blog.post.dto.PostImportRequest;
+import com.blog.xblog.blog.post.dto.PostImportResponse;
+import com.blog.xblog.blog.post.repository.BlogRepository;
+import com.blog.xblog.common.exception.NotFoundException;
+import com.blog.xblog.user.entity.UserEntity;
+import com.blog.xblog.user.service.UserService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+class PostImportServiceTest {
+
+    @Mock
+    private BlogRepository blogRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PostImportService postImportService;
+
+    private final UserEntity author = UserEntity.builder().id(10L).username("alice").build();
+
+    @BeforeEach
+    void setUp() {
+        postImportService = new PostImportService(blogRepository, userService, entityManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), JsonMapper.builder().build(),
+                transactionManager, 2);
+        lenient().when(userService.findById(10L)).thenReturn(Optional.of(author));
+        lenient().when(entityManager.getReference(UserEntity.class, 10L)).thenReturn(author);
+    }
+
+    @Nested
+    @DisplayName("reading the body")
+    class Reading {
+
+        @Test
+        @DisplayName("reads a JSON array and inserts it in chunks, one transaction and one flush per chunk")
+        void readsJsonArrayInChunks() {
+            PostImportResponse result = postImportService.importPosts(10L, body("""
+                    [{"title":"One","content":"A"},{"title":"Two","content":"B"},{"title":"Three","content":"C"}]
+                    """));
+
+            assertThat(result.imported()).isEqualTo(3);
+            assertThat(result.failed()).isZero();
+            verify(transactionManager, times(2)).commit(any());
+            verify(entityManager, times(2)).flush();
+        }
+
+        @Test
+        @DisplayName("reads newline-delimited JSON and keeps an original createdAt")
+        void readsNdjson() {
+            PostImportResponse result = postImportService.importPosts(10L, body("""
+                    {"title":"One","content":"A","createdAt":"2019-05-01T10:00:00Z"}
+                    {"title":"Two","content":"B"}
+                    """));
+
+            assertThat(result.imported()).isEqualTo(2);
+            List<BlogEntity> saved = savedPosts(1);
+            assertThat(saved.get(0).getCreatedAt()).isEqualTo(Instant.parse("2019-05-01T10:00:00Z"));
+            assertThat(saved.get(0).getUpdatedAt()).isEqualTo(Instant.parse("2019-05-01T10:00:00Z"));
+            assertThat(saved.get(1).getCreatedAt()).isAfter(Instant.parse("2020-01-01T00:00:00Z"));
+        }
+
+        @Test
+        @DisplayName("stops at malformed JSON, keeping the posts read before it")
+        void stopsAtMalformedJson() {
+            PostImportResponse result = postImportService.importPosts(10L, body("""
+                    {"title":"One","content":"A"}
+                    {"title":"Two",
+                    """));
+
+            assertThat(result.imported()).isEqualTo(1);
+            assertThat(result.failed()).isEqualTo(1);
+            assertThat(result.errors()).singleElement().satisfies(error -> {
+                assertThat(error.index()).isEqualTo(1);
+                assertThat(error.message()).startsWith("Malformed JSON");
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("skips and reports invalid posts by position, importing the rest")
+    void reportsInvalidPosts() {
+        PostImportResponse result = postImportService.importPosts(10L, body("""
+                [{"title":"One","content":"A"},{"title":" ","content":"B"},null,{"title":"Four","content":"D","createdAt":"2999-01-01T00:00:00Z"},{"title":"Five","content":"E","createdAt":"yesterday"},{"title":"Six","content":"F"}]
+                """));
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(4);
+        assertThat(result.errors()).extracting(PostImportError::index).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(result.errors().get(0).message()).startsWith("title:");
+        assertThat(result.errors().get(2).message()).startsWith("createdAt:");
+    }
+
+    @Test
+    @DisplayName("allocates slugs for a chunk from one family query")
+    void allocatesSlugsWithOneQuery() {
+        when(blogRepository.findSlugFamilies(Set.of("hello", "other"))).thenReturn(List.of("hello", "hello-1", "other-intro"));
+
+        postImportService.importPosts(10L, body("""
+                [{"title":"Hello","content":"A"},{"title":"Other","content":"B"},{"title":"Hello","content":"C"}]
+                """));
+
+        verify(blogRepository, times(2)).findSlugFamilies(any());
+        List<String> slugs = new ArrayList<>();
+        savedPosts(2).forEach(post -> slugs.add(post.getSlug()));
+        assertThat(slugs).containsExactly("hello-2", "other", "hello");
+    }
+
+    @Test
+    @DisplayName("retries a failing chunk post by post, reporting only the posts the database rejects")
+    void isolatesRejectedPosts() {
+        when(blogRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<BlogEntity> posts = invocation.getArgument(0);
+            if (posts.stream().anyMatch(post -> post.getTitle().equals("Bad"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return posts;
+        });
+
+        PostImportResponse result = postImportService.importPosts(10L, body("""
+                [{"title":"Good","content":"A"},{"title":"Bad","content":"B"},{"title":"Also good","content":"C"}]
+                """));
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(result.errors()).singleElement().satisfies(error -> {
+            assertThat(error.index()).isEqualTo(1);
+            assertThat(error.message()).isEqualTo("Could not be saved: value too long");
+        });
+    }
+
+    @Test
+    @DisplayName("returns the posts saved so far when the import stops on an unexpected error")
+    void returnsPartialResultOnUnexpectedError() {
+        Validator validator = mock(Validator.class);
+        when(validator.validate(any(PostImportRequest.class)))
+                .thenReturn(Set.of(), Set.of())
+                .thenThrow(new IllegalStateException("validator broke"));
+        PostImportService service = new PostImportService(blogRepository, userService, entityManager, validator,
+                JsonMapper.builder().build(), transactionManager, 2);
+
+        PostImportResponse result = service.importPosts(10L, body("""
+                {"title":"One","content":"A"}
+                {"title":"Two","content":"B"}
+                {"title":"Three","content":"C"}
+                """));
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.errors()).singleElement().satisfies(error -> {
+            assertThat(error.index()).isEqualTo(2);
+            assertThat(error.message()).isEqualTo("Import stopped: validator broke");
+        });
+    }
+
+    @Test
+    @DisplayName("throws NotFoundException when the author does not exist")
+    void throwsWhenAuthorMissing() {
+        when(userService.findById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> postImportService.importPosts(99L, body("[]")))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Author not found with id 99");
+        verifyNoInteractions(blogRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<BlogEntity> savedPosts(int chunks) {
+        ArgumentCaptor<List<BlogEntity>> saved = ArgumentCaptor.forClass(List.class);
+        verify(blogRepository, times(chunks)).saveAll(saved.capture());
+        return saved.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
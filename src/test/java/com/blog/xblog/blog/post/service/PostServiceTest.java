@@ -4,10 +4,17 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
@@ -17,21 +24,41 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.core.io.Resource;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.http.MediaType;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.blog.xblog.blog.entity.BlogEntity;
 import com.blog.xblog.blog.post.dto.PostCreateRequest;
 import com.blog.xblog.blog.post.dto.PostResponse;
+import com.blog.xblog.blog.post.dto.PostSummaryResponse;
 import com.blog.xblog.blog.post.dto.PostUpdateRequest;
 import com.blog.xblog.blog.post.repository.BlogRepository;
+import com.blog.xblog.blog.post.repository.PostImageView;
+import com.blog.xblog.blog.post.repository.PostSummaryView;
+import com.blog.xblog.blog.post.repository.PostVersionView;
+import com.blog.xblog.common.dto.PageResponse;
+import com.blog.xblog.common.exception.BadRequestException;
 import com.blog.xblog.common.exception.NotFoundException;
+import com.blog.xblog.common.mapper.PostMapper;
 import com.blog.xblog.common.storage.FileStorageService;
+import com.blog.xblog.common.storage.ImageVariant;
+import com.blog.xblog.common.storage.StagedUpload;
+import com.blog.xblog.common.storage.StoredImage;
+import com.blog.xblog.media.service.MediaService;
 import com.blog.xblog.user.entity.UserEntity;
 import com.blog.xblog.user.service.UserService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class PostServiceTest {
 
@@ -44,6 +71,18 @@ class PostServiceTest {
     @Mock
     private FileStorageService fileStorageService;
 
+    @Mock
+    private MediaService mediaService;
+
+    @Mock
+    private PostImageVariantService imageVariantService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private PostService postService;
 
     private static final Instant NOW = Instant.parse("2026-02-14T12:00:00Z");
@@ -51,7 +90,8 @@ class PostServiceTest {
 
     @BeforeEach
     void setUp() {
-        postService = new PostService(blogRepository, userService, fileStorageService);
+        postService = new PostService(blogRepository, userService, fileStorageService, mediaService, imageVariantService, cacheManager,
+                new PostWriteBatcher(transactionManager, new SimpleMeterRegistry(), false, Duration.ZERO, 1), transactionManager);
     }
 
     @Nested
@@ -63,9 +103,9 @@ class PostServiceTest {
         void savesAndReturnsWhenAuthorExists() {
             PostCreateRequest request = new PostCreateRequest("My Title", "Content");
             when(userService.findById(10L)).thenReturn(Optional.of(AUTHOR));
-            when(blogRepository.findBySlug("my-title")).thenReturn(Optional.empty());
+            when(blogRepository.findSlugFamily("my-title")).thenReturn(List.of());
             BlogEntity saved = blogEntity(1L, "My Title", "my-title", "Content", AUTHOR, null);
-            when(blogRepository.save(any(BlogEntity.class))).thenReturn(saved);
+            when(blogRepository.saveAndFlush(any(BlogEntity.class))).thenReturn(saved);
 
             PostResponse result = postService.createPost(10L, request);
 
@@ -76,7 +116,7 @@ class PostServiceTest {
             assertThat(result.authorId()).isEqualTo(10L);
             assertThat(result.authorUsername()).isEqualTo("alice");
             assertThat(result.imageUrl()).isNull();
-            verify(fileStorageService, never()).savePostImage(anyLong(), any());
+            verify(mediaService, never()).store(any());
         }
 
         @Test
@@ -87,7 +127,7 @@ class PostServiceTest {
             assertThatThrownBy(() -> postService.createPost(999L, new PostCreateRequest("T", "C")))
                     .isInstanceOf(NotFoundException.class)
                     .hasMessageContaining("Author not found with id 999");
-            verify(blogRepository, never()).save(any());
+            verify(blogRepository, never()).saveAndFlush(any());
         }
 
         @Test
@@ -95,15 +135,59 @@ class PostServiceTest {
         void usesUniqueSlugWhenTaken() {
             PostCreateRequest request = new PostCreateRequest("Hello", "Content");
             when(userService.findById(10L)).thenReturn(Optional.of(AUTHOR));
-            when(blogRepository.findBySlug("hello")).thenReturn(Optional.of(blogEntity(1L, "x", "hello", "x", AUTHOR, null)));
-            when(blogRepository.findBySlug("hello-1")).thenReturn(Optional.empty());
-            BlogEntity saved = blogEntity(2L, "Hello", "hello-1", "Content", AUTHOR, null);
-            when(blogRepository.save(any(BlogEntity.class))).thenReturn(saved);
+            when(blogRepository.findSlugFamily("hello")).thenReturn(List.of("hello"));
+            when(blogRepository.saveAndFlush(any(BlogEntity.class))).thenAnswer(i -> i.getArgument(0));
 
             PostResponse result = postService.createPost(10L, request);
 
             assertThat(result.slug()).isEqualTo("hello-1");
         }
+
+        @Test
+        @DisplayName("picks the smallest free suffix from one family query, ignoring unrelated slugs")
+        void picksSmallestFreeSuffix() {
+            PostCreateRequest request = new PostCreateRequest("Weekly Update", "Content");
+            when(userService.findById(10L)).thenReturn(Optional.of(AUTHOR));
+            when(blogRepository.findSlugFamily("weekly-update")).thenReturn(List.of(
+                    "weekly-update", "weekly-update-1", "weekly-update-2", "weekly-update-4",
+                    "weekly-update-recap", "weekly-update-03"));
+            when(blogRepository.saveAndFlush(any(BlogEntity.class))).thenAnswer(i -> i.getArgument(0));
+
+            PostResponse result = postService.createPost(10L, request);
+
+            assertThat(result.slug()).isEqualTo("weekly-update-3");
+            verify(blogRepository).findSlugFamily("weekly-update");
+        }
+
+        @Test
+        @DisplayName("retries with a fresh allocation when a concurrent insert claims the slug")
+        void retriesOnSlugRace() {
+            PostCreateRequest request = new PostCreateRequest("Hello", "Content");
+            when(userService.findById(10L)).thenReturn(Optional.of(AUTHOR));
+            when(blogRepository.findSlugFamily("hello"))
+                    .thenReturn(List.of())
+                    .thenReturn(List.of("hello"));
+            when(blogRepository.saveAndFlush(any(BlogEntity.class)))
+                    .thenThrow(new DataIntegrityViolationException("UNIQUE constraint failed: blog.slug"))
+                    .thenAnswer(i -> i.getArgument(0));
+
+            PostResponse result = postService.createPost(10L, request);
+
+            assertThat(result.slug()).isEqualTo("hello-1");
+        }
+
+        @Test
+        @DisplayName("gives up after repeated unique violations")
+        void givesUpAfterRepeatedViolations() {
+            when(userService.findById(10L)).thenReturn(Optional.of(AUTHOR));
+            when(blogRepository.findSlugFamily("hello")).thenReturn(List.of());
+            when(blogRepository.saveAndFlush(any(BlogEntity.class)))
+                    .thenThrow(new DataIntegrityViolationException("UNIQUE constraint failed: blog.slug"));
+
+            assertThatThrownBy(() -> postService.createPost(10L, new PostCreateRequest("Hello", "Content")))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+            verify(blogRepository, times(3)).saveAndFlush(any());
+        }
     }
 
     @Nested
@@ -111,21 +195,60 @@ class PostServiceTest {
     class CreatePostWithImage {
 
         @Test
-        @DisplayName("saves image and sets imagePath when image provided")
+        @DisplayName("stores the image first and inserts the post with it in a single write")
         void savesImageAndSetsPath() {
             PostCreateRequest request = new PostCreateRequest("Title", "Content");
             MultipartFile image = mockMultipartFile("image/jpeg", "x.jpg");
+            StagedUpload upload = stagedUpload("image/png");
+            when(fileStorageService.stage(image)).thenReturn(upload);
             when(userService.findById(10L)).thenReturn(Optional.of(AUTHOR));
-            when(blogRepository.findBySlug("title")).thenReturn(Optional.empty());
-            BlogEntity firstSave = blogEntity(1L, "Title", "title", "Content", AUTHOR, null);
-            BlogEntity withImage = blogEntity(1L, "Title", "title", "Content", AUTHOR, "posts/1/abc.jpg");
-            when(blogRepository.save(any(BlogEntity.class))).thenReturn(firstSave).thenReturn(withImage);
-            when(fileStorageService.savePostImage(1L, image)).thenReturn("posts/1/abc.jpg");
+            when(blogRepository.findSlugFamily("title")).thenReturn(List.of());
+            when(blogRepository.saveAndFlush(any(BlogEntity.class))).thenAnswer(i -> withId(i.getArgument(0), 1L));
+            when(mediaService.store(upload)).thenReturn("posts/1/abc.jpg");
 
             PostResponse result = postService.createPost(10L, request, image);
 
             assertThat(result.imageUrl()).isEqualTo("/api/posts/1/image");
-            verify(fileStorageService).savePostImage(1L, image);
+            ArgumentCaptor<BlogEntity> saved = ArgumentCaptor.forClass(BlogEntity.class);
+            verify(blogRepository).saveAndFlush(saved.capture());
+            assertThat(saved.getValue().getImagePath()).isEqualTo("posts/1/abc.jpg");
+            assertThat(saved.getValue().getImageContentType()).isEqualTo("image/png");
+            verify(blogRepository, never()).save(any());
+            verify(fileStorageService).discard(upload);
+            verify(imageVariantService).submit(1L, "posts/1/abc.jpg");
+        }
+
+        @Test
+        @DisplayName("releases the stored image when the post cannot be written")
+        void releasesImageWhenWriteFails() {
+            MultipartFile image = mockMultipartFile("image/jpeg", "x.jpg");
+            StagedUpload upload = stagedUpload("image/jpeg");
+            when(fileStorageService.stage(image)).thenReturn(upload);
+            when(mediaService.store(upload)).thenReturn("media/ab/x.jpg");
+            when(userService.findById(10L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> postService.createPost(10L, new PostCreateRequest("Title", "Content"), image))
+                    .isInstanceOf(NotFoundException.class);
+            verify(mediaService).release("media/ab/x.jpg");
+            verify(imageVariantService, never()).submit(anyLong(), any());
+        }
+
+        @Test
+        @DisplayName("links content-addressed images to their immutable media URL")
+        void linksContentAddressedImage() {
+            String hash = "ab" + "0".repeat(62);
+            PostCreateRequest request = new PostCreateRequest("Title", "Content");
+            MultipartFile image = mockMultipartFile("image/jpeg", "x.jpg");
+            when(userService.findById(10L)).thenReturn(Optional.of(AUTHOR));
+            when(blogRepository.findSlugFamily("title")).thenReturn(List.of());
+            when(blogRepository.saveAndFlush(any(BlogEntity.class))).thenAnswer(i -> withId(i.getArgument(0), 1L));
+            StagedUpload upload = stagedUpload("image/jpeg");
+            when(fileStorageService.stage(image)).thenReturn(upload);
+            when(mediaService.store(upload)).thenReturn("media/ab/" + hash + ".jpg");
+
+            PostResponse result = postService.createPost(10L, request, image);
+
+            assertThat(result.imageUrl()).isEqualTo("/api/media/" + hash + ".jpg");
         }
 
         @Test
@@ -133,13 +256,13 @@ class PostServiceTest {
         void ignoresNullImage() {
             PostCreateRequest request = new PostCreateRequest("Title", "Content");
             when(userService.findById(10L)).thenReturn(Optional.of(AUTHOR));
-            when(blogRepository.findBySlug("title")).thenReturn(Optional.empty());
+            when(blogRepository.findSlugFamily("title")).thenReturn(List.of());
             BlogEntity saved = blogEntity(1L, "Title", "title", "Content", AUTHOR, null);
-            when(blogRepository.save(any(BlogEntity.class))).thenReturn(saved);
+            when(blogRepository.saveAndFlush(any(BlogEntity.class))).thenReturn(saved);
 
             postService.createPost(10L, request, null);
 
-            verify(fileStorageService, never()).savePostImage(anyLong(), any());
+            verify(mediaService, never()).store(any());
         }
     }
 
@@ -171,32 +294,152 @@ class PostServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("getPostVersion")
+    class GetPostVersion {
+
+        @Test
+        @DisplayName("returns updatedAt from the column-only query")
+        void returnsUpdatedAt() {
+            Instant updatedAt = Instant.parse("2026-02-14T12:00:00Z");
+            when(blogRepository.findVersionById(1L))
+                    .thenReturn(Optional.of(new PostVersionView(updatedAt, updatedAt.minusSeconds(60))));
+
+            assertThat(postService.getPostVersion(1L)).isEqualTo(updatedAt);
+            verify(blogRepository, never()).findById(anyLong());
+        }
+
+        @Test
+        @DisplayName("returns the author's updatedAt when the author changed later, since the post shows the username")
+        void returnsAuthorUpdatedAtWhenLater() {
+            Instant updatedAt = Instant.parse("2026-02-14T12:00:00Z");
+            Instant renamedAt = updatedAt.plusSeconds(60);
+            when(blogRepository.findVersionById(1L)).thenReturn(Optional.of(new PostVersionView(updatedAt, renamedAt)));
+
+            assertThat(postService.getPostVersion(1L)).isEqualTo(renamedAt);
+        }
+
+        @Test
+        @DisplayName("throws NotFoundException when not found")
+        void throwsWhenNotFound() {
+            when(blogRepository.findVersionById(999L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> postService.getPostVersion(999L))
+                    .isInstanceOf(NotFoundException.class)
+                    .hasMessageContaining("Post not found with id 999");
+        }
+    }
+
     @Nested
     @DisplayName("listPosts")
     class ListPosts {
 
         @Test
-        @DisplayName("returns all posts from repository")
-        void returnsAll() {
-            BlogEntity a = blogEntity(1L, "A", "a", "C", AUTHOR, null);
-            BlogEntity b = blogEntity(2L, "B", "b", "C", AUTHOR, null);
-            when(blogRepository.findAll()).thenReturn(List.of(a, b));
+        @DisplayName("returns first page with next cursor when more rows exist")
+        void returnsFirstPageWithCursor() {
+            PostSummaryView a = summary(3L, "A");
+            PostSummaryView b = summary(2L, "B");
+            PostSummaryView c = summary(1L, "C");
+            when(blogRepository.findSummaries(Limit.of(3))).thenReturn(List.of(a, b, c));
+
+            PageResponse<PostSummaryResponse> result = postService.listPosts(null, 2);
+
+            assertThat(result.getContent()).extracting(PostSummaryResponse::title).containsExactly("A", "B");
+            assertThat(result.getPageSize()).isEqualTo(2);
+            assertThat(result.isLast()).isFalse();
+            assertThat(PostCursor.decode(result.getNextCursor())).isEqualTo(new PostCursor(NOW, 2L));
+        }
+
+        @Test
+        @DisplayName("continues after cursor and marks last page")
+        void continuesAfterCursor() {
+            String cursor = new PostCursor(NOW, 2L).encode();
+            when(blogRepository.findSummariesBefore(NOW, 2L, Limit.of(3))).thenReturn(List.of(summary(1L, "C")));
 
-            List<PostResponse> result = postService.listPosts();
+            PageResponse<PostSummaryResponse> result = postService.listPosts(cursor, 2);
 
-            assertThat(result).hasSize(2);
-            assertThat(result.get(0).title()).isEqualTo("A");
-            assertThat(result.get(1).title()).isEqualTo("B");
+            assertThat(result.getContent()).extracting(PostSummaryResponse::id).containsExactly(1L);
+            assertThat(result.isLast()).isTrue();
+            assertThat(result.getNextCursor()).isNull();
         }
 
         @Test
-        @DisplayName("returns empty list when no posts")
+        @DisplayName("returns empty last page when no posts")
         void returnsEmptyWhenNone() {
-            when(blogRepository.findAll()).thenReturn(List.of());
+            when(blogRepository.findSummaries(any(Limit.class))).thenReturn(List.of());
+
+            PageResponse<PostSummaryResponse> result = postService.listPosts(null, 20);
+
+            assertThat(result.getContent()).isEmpty();
+            assertThat(result.isLast()).isTrue();
+        }
+
+        @Test
+        @DisplayName("caps page size")
+        void capsPageSize() {
+            when(blogRepository.findSummaries(Limit.of(101))).thenReturn(List.of());
+
+            PageResponse<PostSummaryResponse> result = postService.listPosts(null, 10_000);
+
+            assertThat(result.getPageSize()).isEqualTo(100);
+        }
 
-            List<PostResponse> result = postService.listPosts();
+        @Test
+        @DisplayName("throws BadRequestException on malformed cursor")
+        void throwsOnMalformedCursor() {
+            assertThatThrownBy(() -> postService.listPosts("not-a-cursor", 20))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+
+    @Nested
+    @DisplayName("getPostBySlug")
+    class GetPostBySlug {
 
-            assertThat(result).isEmpty();
+        private final Cache slugs = new ConcurrentMapCache("postSlugs");
+        private final Cache posts = new ConcurrentMapCache("posts");
+
+        @BeforeEach
+        void setUpCaches() {
+            when(cacheManager.getCache("postSlugs")).thenReturn(slugs);
+            lenient().when(cacheManager.getCache("posts")).thenReturn(posts);
+        }
+
+        @Test
+        @DisplayName("on a cold cache resolves the id, loads the post and caches both")
+        void coldCache_loadsAndCaches() {
+            BlogEntity post = blogEntity(1L, "Hello", "hello", "Content", AUTHOR, null);
+            when(blogRepository.findIdBySlug("hello")).thenReturn(Optional.of(1L));
+            when(blogRepository.findById(1L)).thenReturn(Optional.of(post));
+
+            PostResponse result = postService.getPostBySlug("hello");
+
+            assertThat(result.id()).isEqualTo(1L);
+            assertThat(slugs.get("hello", Long.class)).isEqualTo(1L);
+            assertThat(posts.get(1L, PostResponse.class)).isEqualTo(result);
+        }
+
+        @Test
+        @DisplayName("on a warm cache runs no queries and shares the posts entry")
+        void warmCache_noQueries() {
+            PostResponse cached = PostMapper.toPostResponse(blogEntity(1L, "Hello", "hello", "Content", AUTHOR, null));
+            slugs.put("hello", 1L);
+            posts.put(1L, cached);
+
+            assertThat(postService.getPostBySlug("hello")).isSameAs(cached);
+            verifyNoInteractions(blogRepository);
+        }
+
+        @Test
+        @DisplayName("throws NotFoundException for an unknown slug without caching it")
+        void unknownSlug_throws() {
+            when(blogRepository.findIdBySlug("missing")).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> postService.getPostBySlug("missing"))
+                    .isInstanceOf(NotFoundException.class)
+                    .hasMessageContaining("Post not found with slug missing");
+            assertThat(slugs.get("missing")).isNull();
         }
     }
 
@@ -209,15 +452,44 @@ class PostServiceTest {
         void updatesWhenAuthor() {
             BlogEntity post = blogEntity(1L, "Old", "old", "Content", AUTHOR, null);
             when(blogRepository.findById(1L)).thenReturn(Optional.of(post));
-            when(blogRepository.findBySlugAndIdNot("new-title", 1L)).thenReturn(Optional.empty());
-            when(blogRepository.save(any(BlogEntity.class))).thenAnswer(i -> i.getArgument(0));
+            when(blogRepository.findSlugFamily("new-title")).thenReturn(List.of());
+            when(blogRepository.saveAndFlush(any(BlogEntity.class))).thenAnswer(i -> i.getArgument(0));
 
             PostUpdateRequest request = new PostUpdateRequest("New Title", "New content");
             PostResponse result = postService.updatePost(1L, 10L, request);
 
             assertThat(result.title()).isEqualTo("New Title");
             assertThat(result.slug()).isEqualTo("new-title");
-            verify(blogRepository).save(post);
+            verify(blogRepository).saveAndFlush(post);
+        }
+
+        @Test
+        @DisplayName("evicts the old slug mapping when the slug changes")
+        void evictsOldSlugOnChange() {
+            Cache slugs = new ConcurrentMapCache("postSlugs");
+            slugs.put("old", 1L);
+            when(cacheManager.getCache("postSlugs")).thenReturn(slugs);
+            BlogEntity post = blogEntity(1L, "Old", "old", "Content", AUTHOR, null);
+            when(blogRepository.findById(1L)).thenReturn(Optional.of(post));
+            when(blogRepository.findSlugFamily("new-title")).thenReturn(List.of());
+            when(blogRepository.saveAndFlush(any(BlogEntity.class))).thenAnswer(i -> i.getArgument(0));
+
+            postService.updatePost(1L, 10L, new PostUpdateRequest("New Title", "New content"));
+
+            assertThat(slugs.get("old")).isNull();
+        }
+
+        @Test
+        @DisplayName("keeps its own suffixed slug when the title maps to the same family")
+        void keepsOwnSlugOnUpdate() {
+            BlogEntity post = blogEntity(2L, "Hello", "hello-1", "Content", AUTHOR, null);
+            when(blogRepository.findById(2L)).thenReturn(Optional.of(post));
+            when(blogRepository.findSlugFamily("hello")).thenReturn(List.of("hello", "hello-1"));
+            when(blogRepository.saveAndFlush(any(BlogEntity.class))).thenAnswer(i -> i.getArgument(0));
+
+            PostResponse result = postService.updatePost(2L, 10L, new PostUpdateRequest("Hello", "Edited"));
+
+            assertThat(result.slug()).isEqualTo("hello-1");
         }
 
         @Test
@@ -229,7 +501,7 @@ class PostServiceTest {
             assertThatThrownBy(() -> postService.updatePost(1L, 20L, new PostUpdateRequest("X", "Y")))
                     .isInstanceOf(NotFoundException.class)
                     .hasMessage("Post not found");
-            verify(blogRepository, never()).save(any());
+            verify(blogRepository, never()).saveAndFlush(any());
         }
 
         @Test
@@ -252,14 +524,61 @@ class PostServiceTest {
         void replacesImageWhenProvided() {
             BlogEntity post = blogEntity(1L, "Title", "title", "Content", AUTHOR, "posts/1/old.jpg");
             when(blogRepository.findById(1L)).thenReturn(Optional.of(post));
-            when(blogRepository.save(any(BlogEntity.class))).thenAnswer(i -> i.getArgument(0));
+            when(blogRepository.saveAndFlush(any(BlogEntity.class))).thenAnswer(i -> i.getArgument(0));
             MultipartFile image = mockMultipartFile("image/png", "new.png");
-            when(fileStorageService.savePostImage(1L, image)).thenReturn("posts/1/new.png");
+            StagedUpload upload = stagedUpload("image/png");
+            when(fileStorageService.stage(image)).thenReturn(upload);
+            when(mediaService.store(upload)).thenReturn("posts/1/new.png");
 
             postService.updatePost(1L, 10L, new PostUpdateRequest(null, null), image);
 
-            verify(fileStorageService).deleteByRelativePath("posts/1/old.jpg");
-            verify(fileStorageService).savePostImage(1L, image);
+            verify(mediaService).releaseLater("posts/1/old.jpg");
+            verify(mediaService).store(upload);
+            verify(blogRepository, never()).save(any());
+            verify(imageVariantService).submit(1L, "posts/1/new.png");
+        }
+    }
+
+    @Nested
+    @DisplayName("replacePostImage")
+    class ReplacePostImage {
+
+        @Test
+        @DisplayName("stages the body, stores it with the sniffed type and releases the old image")
+        void replacesImageFromStream() {
+            InputStream body = new ByteArrayInputStream(new byte[] {1});
+            StagedUpload upload = stagedUpload("image/png");
+            BlogEntity post = blogEntity(1L, "Title", "title", "Content", AUTHOR, "posts/1/old.jpg");
+            post.setImageVariants("thumbnail");
+            when(fileStorageService.stage(body)).thenReturn(upload);
+            when(blogRepository.findById(1L)).thenReturn(Optional.of(post));
+            when(blogRepository.saveAndFlush(any(BlogEntity.class))).thenAnswer(i -> i.getArgument(0));
+            when(mediaService.store(upload)).thenReturn("posts/1/new.png");
+
+            postService.replacePostImage(1L, 10L, body);
+
+            assertThat(post.getImagePath()).isEqualTo("posts/1/new.png");
+            assertThat(post.getImageContentType()).isEqualTo("image/png");
+            assertThat(post.getImageVariants()).isNull();
+            verify(mediaService).releaseLater("posts/1/old.jpg");
+            verify(imageVariantService).submit(1L, "posts/1/new.png");
+        }
+
+        @Test
+        @DisplayName("releases the stored image when caller is not the author")
+        void releasesImageForNonAuthor() {
+            InputStream body = new ByteArrayInputStream(new byte[] {1});
+            StagedUpload upload = stagedUpload("image/jpeg");
+            when(fileStorageService.stage(body)).thenReturn(upload);
+            when(mediaService.store(upload)).thenReturn("posts/1/new.jpg");
+            when(blogRepository.findById(1L))
+                    .thenReturn(Optional.of(blogEntity(1L, "Title", "title", "Content", AUTHOR, "posts/1/old.jpg")));
+
+            assertThatThrownBy(() -> postService.replacePostImage(1L, 99L, body))
+                    .isInstanceOf(NotFoundException.class);
+            verify(mediaService).release("posts/1/new.jpg");
+            verify(mediaService, never()).releaseLater("posts/1/old.jpg");
+            verify(fileStorageService).discard(upload);
         }
     }
 
@@ -268,26 +587,40 @@ class PostServiceTest {
     class DeletePost {
 
         @Test
-        @DisplayName("deletes post and image file when author")
+        @DisplayName("deletes post and releases its image when author")
         void deletesWhenAuthor() {
             BlogEntity post = blogEntity(1L, "Title", "title", "Content", AUTHOR, "posts/1/x.jpg");
             when(blogRepository.findById(1L)).thenReturn(Optional.of(post));
 
             postService.deletePost(1L, 10L);
 
-            verify(fileStorageService).deleteByRelativePath("posts/1/x.jpg");
+            verify(mediaService).releaseLater("posts/1/x.jpg");
             verify(blogRepository).delete(post);
         }
 
         @Test
-        @DisplayName("does not call fileStorage when post has no image")
+        @DisplayName("evicts the slug mapping of the deleted post")
+        void evictsSlugOnDelete() {
+            Cache slugs = new ConcurrentMapCache("postSlugs");
+            slugs.put("title", 1L);
+            when(cacheManager.getCache("postSlugs")).thenReturn(slugs);
+            BlogEntity post = blogEntity(1L, "Title", "title", "Content", AUTHOR, null);
+            when(blogRepository.findById(1L)).thenReturn(Optional.of(post));
+
+            postService.deletePost(1L, 10L);
+
+            assertThat(slugs.get("title")).isNull();
+        }
+
+        @Test
+        @DisplayName("releases nothing when post has no image")
         void noFileDeleteWhenNoImage() {
             BlogEntity post = blogEntity(1L, "Title", "title", "Content", AUTHOR, null);
             when(blogRepository.findById(1L)).thenReturn(Optional.of(post));
 
             postService.deletePost(1L, 10L);
 
-            verify(fileStorageService).deleteByRelativePath(null);
+            verify(mediaService).releaseLater(null);
             verify(blogRepository).delete(post);
         }
 
@@ -309,34 +642,55 @@ class PostServiceTest {
     class GetPostImage {
 
         @Test
-        @DisplayName("returns resource when post has imagePath")
-        void returnsResourceWhenHasImage() throws Exception {
-            BlogEntity post = blogEntity(1L, "Title", "title", "Content", AUTHOR, "posts/1/x.jpg");
-            Resource resource = org.mockito.Mockito.mock(Resource.class);
-            when(blogRepository.findById(1L)).thenReturn(Optional.of(post));
-            when(fileStorageService.getResource("posts/1/x.jpg")).thenReturn(resource);
+        @DisplayName("resolves the image from the column-only query")
+        void returnsImageWhenHasImage() throws Exception {
+            StoredImage image = new StoredImage(Path.of("posts/1/x.jpg"), MediaType.IMAGE_PNG, 3, NOW, "\"e\"");
+            when(blogRepository.findImageById(1L)).thenReturn(Optional.of(new PostImageView("posts/1/x.jpg", "image/png", null)));
+            when(fileStorageService.getImage("posts/1/x.jpg", "image/png")).thenReturn(image);
 
-            Resource result = postService.getPostImage(1L);
+            StoredImage result = postService.getPostImage(1L);
+
+            assertThat(result).isSameAs(image);
+            verify(blogRepository, never()).findById(anyLong());
+        }
 
-            assertThat(result).isSameAs(resource);
+        @Test
+        @DisplayName("serves a built variant")
+        void returnsVariantWhenBuilt() throws Exception {
+            StoredImage thumbnail = new StoredImage(Path.of("posts/1/x-thumbnail.jpg"), MediaType.IMAGE_JPEG, 1, NOW, "\"t\"");
+            when(blogRepository.findImageById(1L))
+                    .thenReturn(Optional.of(new PostImageView("posts/1/x.jpg", "image/jpeg", "medium,thumbnail")));
+            when(fileStorageService.getImage("posts/1/x-thumbnail.jpg", "image/jpeg")).thenReturn(thumbnail);
+
+            assertThat(postService.getPostImage(1L, ImageVariant.THUMBNAIL)).isSameAs(thumbnail);
+        }
+
+        @Test
+        @DisplayName("falls back to the original until the variant is built")
+        void fallsBackToOriginalWithoutVariant() throws Exception {
+            StoredImage original = new StoredImage(Path.of("posts/1/x.jpg"), MediaType.IMAGE_JPEG, 3, NOW, "\"o\"");
+            when(blogRepository.findImageById(1L))
+                    .thenReturn(Optional.of(new PostImageView("posts/1/x.jpg", "image/jpeg", null)));
+            when(fileStorageService.getImage("posts/1/x.jpg", "image/jpeg")).thenReturn(original);
+
+            assertThat(postService.getPostImage(1L, ImageVariant.THUMBNAIL)).isSameAs(original);
         }
 
         @Test
         @DisplayName("returns null when post has no image")
         void returnsNullWhenNoImage() throws Exception {
-            BlogEntity post = blogEntity(1L, "Title", "title", "Content", AUTHOR, null);
-            when(blogRepository.findById(1L)).thenReturn(Optional.of(post));
+            when(blogRepository.findImageById(1L)).thenReturn(Optional.of(new PostImageView(null, null, null)));
 
-            Resource result = postService.getPostImage(1L);
+            StoredImage result = postService.getPostImage(1L);
 
             assertThat(result).isNull();
-            verify(fileStorageService, never()).getResource(any());
+            verify(fileStorageService, never()).getImage(any(), any());
         }
 
         @Test
         @DisplayName("throws NotFoundException when post not found")
         void throwsWhenPostNotFound() {
-            when(blogRepository.findById(999L)).thenReturn(Optional.empty());
+            when(blogRepository.findImageById(999L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> postService.getPostImage(999L))
                     .isInstanceOf(NotFoundException.class)
@@ -369,6 +723,20 @@ class PostServiceTest {
                 .build();
     }
 
+    private static PostSummaryView summary(Long id, String title) {
+        return new PostSummaryView(id, title, title.toLowerCase(), AUTHOR.getId(), AUTHOR.getUsername(), null, null, NOW, NOW);
+    }
+
+    private static BlogEntity withId(BlogEntity entity, Long id) {
+        entity.setId(id);
+        return entity;
+    }
+
+    private static StagedUpload stagedUpload(String contentType) {
+        return new StagedUpload(Path.of("upload.part"), "ab" + "0".repeat(62), 100L, contentType,
+                contentType.equals("image/png") ? "png" : "jpg");
+    }
+
     private static MultipartFile mockMultipartFile(String contentType, String name) {
         MultipartFile file = org.mockito.Mockito.mock(MultipartFile.class);
         org.mockito.Mockito.lenient().when(file.isEmpty()).thenReturn(false);
@@ -0,0 +1,94 @@
+package com.blog.xblog.blog.post.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.blog.xblog.common.exception.NotFoundException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class PostWriteBatcherTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PostWriteBatcher batcher;
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @BeforeEach
+    void setUp() {
+        batcher = new PostWriteBatcher(transactionManager, new SimpleMeterRegistry(), true, Duration.ofMillis(300), 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.close();
+        callers.close();
+    }
+
+    @Test
+    @DisplayName("commits concurrent writes in one transaction and returns each caller its own result")
+    void coalescesConcurrentWrites() {
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int n = i;
+            results.add(submit(() -> n * 10));
+        }
+
+        assertThat(results.stream().map(CompletableFuture::join)).containsExactly(0, 10, 20, 30, 40);
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    @DisplayName("rolls back a batch with a failing write and retries the others on their own")
+    void isolatesFailingWrite() {
+        CompletableFuture<String> first = submit(() -> "first");
+        CompletableFuture<String> failing = submit(() -> {
+            throw new NotFoundException("Post not found");
+        });
+        CompletableFuture<String> last = submit(() -> "last");
+
+        assertThat(first.join()).isEqualTo("first");
+        assertThat(last.join()).isEqualTo("last");
+        assertThatThrownBy(failing::join).hasCauseInstanceOf(NotFoundException.class);
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("runs writes inline when group commit is disabled")
+    void runsInlineWhenDisabled() {
+        batcher.close();
+        batcher = new PostWriteBatcher(transactionManager, new SimpleMeterRegistry(), false, Duration.ZERO, 1);
+        Thread caller = Thread.currentThread();
+
+        assertThat(batcher.write(Thread::currentThread)).isSameAs(caller);
+        verify(transactionManager).commit(any());
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(() -> batcher.write(work), callers);
+    }
+}
@@ -0,0 +1,186 @@
+package com.blog.xblog.common.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+class TwoLevelCacheTest {
+
+    private ConcurrentMapCache local;
+    private ConcurrentMapCache remote;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        local = new ConcurrentMapCache("posts");
+        remote = new ConcurrentMapCache("posts");
+        cache = new TwoLevelCache("posts", local, remote, new LocalCacheInvalidationBus());
+    }
+
+    @Nested
+    @DisplayName("reads")
+    class Reads {
+
+        @Test
+        @DisplayName("promotes remote hit into local tier")
+        void promotesRemoteHit() {
+            remote.put(1L, "post");
+
+            assertThat(cache.get(1L).get()).isEqualTo("post");
+            assertThat(local.get(1L).get()).isEqualTo("post");
+        }
+
+        @Test
+        @DisplayName("loader result is written to both tiers")
+        void loaderWritesBothTiers() {
+            String value = cache.get(1L, () -> "loaded");
+
+            assertThat(value).isEqualTo("loaded");
+            assertThat(local.get(1L).get()).isEqualTo("loaded");
+            assertThat(remote.get(1L).get()).isEqualTo("loaded");
+        }
+
+        @Test
+        @DisplayName("loader is skipped when remote tier has the value")
+        void loaderSkippedOnRemoteHit() {
+            remote.put(1L, "remote");
+
+            String value = cache.get(1L, () -> "loaded");
+
+            assertThat(value).isEqualTo("remote");
+        }
+    }
+
+    @Nested
+    @DisplayName("writes")
+    class Writes {
+
+        @Test
+        @DisplayName("evict removes entry from both tiers")
+        void evictRemovesFromBothTiers() {
+            cache.put(1L, "post");
+
+            cache.evict(1L);
+
+            assertThat(local.get(1L)).isNull();
+            assertThat(remote.get(1L)).isNull();
+        }
+
+        @Test
+        @DisplayName("evictLocal keeps the shared tier")
+        void evictLocalKeepsRemote() {
+            cache.put(1L, "post");
+
+            cache.evictLocal(1L);
+
+            assertThat(local.get(1L)).isNull();
+            assertThat(remote.get(1L)).isNotNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("remote failures")
+    class RemoteFailures {
+
+        @Test
+        @DisplayName("are treated as misses and local tier keeps working")
+        void degradeToLocal() {
+            Cache failing = mock(Cache.class);
+            when(failing.get(any())).thenThrow(new IllegalStateException("redis down"));
+            doThrow(new IllegalStateException("redis down")).when(failing).put(any(), any());
+            TwoLevelCache degraded = new TwoLevelCache("posts", local, failing, new LocalCacheInvalidationBus());
+
+            assertThat(degraded.get(1L)).isNull();
+            degraded.put(1L, "post");
+            assertThat(degraded.get(1L).get()).isEqualTo("post");
+        }
+
+        @Test
+        @DisplayName("local-only cache never touches a remote tier")
+        void localOnly() {
+            TwoLevelCache localOnly = new TwoLevelCache("principals", local, null, new LocalCacheInvalidationBus());
+
+            localOnly.put("alice", "details");
+
+            assertThat(localOnly.get("alice").get()).isEqualTo("details");
+        }
+    }
+
+    @Nested
+    @DisplayName("cross-node invalidation")
+    class CrossNodeInvalidation {
+
+        private LocalCacheInvalidationBus bus;
+        private TwoLevelCacheManager nodeA;
+        private TwoLevelCacheManager nodeB;
+
+        @BeforeEach
+        void setUp() {
+            bus = new LocalCacheInvalidationBus();
+            nodeA = node(bus, remote);
+            nodeB = node(bus, remote);
+        }
+
+        @Test
+        @DisplayName("evict on one node drops the near-cache entry on the other")
+        void evictReachesOtherNode() {
+            nodeA.getCache("posts").put(1L, "v1");
+            assertThat(nodeB.getCache("posts").get(1L).get()).isEqualTo("v1");
+
+            nodeA.getCache("posts").evict(1L);
+
+            assertThat(nodeB.getCache("posts").get(1L)).isNull();
+        }
+
+        @Test
+        @DisplayName("clear on one node empties the near-cache on the other")
+        void clearReachesOtherNode() {
+            nodeA.getCache("posts").put(1L, "v1");
+            nodeB.getCache("posts").get(1L);
+
+            nodeA.getCache("posts").clear();
+
+            assertThat(nodeB.getCache("posts").get(1L)).isNull();
+        }
+
+        private TwoLevelCacheManager node(CacheInvalidationBus bus, Cache sharedRemote) {
+            TwoLevelCache posts = new TwoLevelCache("posts", new ConcurrentMapCache("posts"), sharedRemote, bus);
+            TwoLevelCacheManager manager = new TwoLevelCacheManager(List.of(posts), bus);
+            manager.afterPropertiesSet();
+            return manager;
+        }
+    }
+
+    @Nested
+    @DisplayName("CacheInvalidationMessage")
+    class Message {
+
+        @Test
+        @DisplayName("round-trips supported key types")
+        void roundTrips() {
+            assertThat(CacheInvalidationMessage.decode(new CacheInvalidationMessage("n1", "posts", 42L).encode()))
+                    .isEqualTo(new CacheInvalidationMessage("n1", "posts", 42L));
+            assertThat(CacheInvalidationMessage.decode(new CacheInvalidationMessage("n1", "principals", "a|b").encode()))
+                    .isEqualTo(new CacheInvalidationMessage("n1", "principals", "a|b"));
+        }
+
+        @Test
+        @DisplayName("encodes unsupported keys as whole-cache clear")
+        void unsupportedKeyClears() {
+            String payload = new CacheInvalidationMessage("n1", "posts", new Object()).encode();
+
+            assertThat(CacheInvalidationMessage.decode(payload).key()).isNull();
+        }
+    }
+}
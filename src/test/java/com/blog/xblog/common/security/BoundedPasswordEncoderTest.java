@@ -0,0 +1,115 @@
+package com.blog.xblog.common.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.blog.xblog.common.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    @Test
+    @DisplayName("delegates encode and matches on the worker pool and times them")
+    void delegatesAndRecordsTimings() {
+        encoder = new BoundedPasswordEncoder(new PrefixEncoder(), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        String encoded = encoder.encode("secret");
+
+        assertThat(encoded).isEqualTo("enc:secret");
+        assertThat(encoder.matches("secret", encoded)).isTrue();
+        assertThat(encoder.matches("other", encoded)).isFalse();
+        assertThat(meterRegistry.get("password.encoder.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.encoder.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("when pool and queue are full rejects immediately with ServiceUnavailableException")
+    void whenSaturated_rejectsWith503() throws Exception {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        awaitGauge("password.encoder.active", 1);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        awaitGauge("password.encoder.queue.depth", 1);
+
+        assertThatThrownBy(() -> encoder.encode("c"))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(meterRegistry.get("password.encoder.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("enc:a");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("enc:b");
+    }
+
+    @Test
+    @DisplayName("when a hash does not finish within the timeout throws ServiceUnavailableException")
+    void whenTimedOut_throws503() {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), 1, 1, Duration.ofMillis(50), meterRegistry);
+
+        assertThatThrownBy(() -> encoder.encode("a"))
+                .isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    private void awaitGauge(String name, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get(name).gauge().value() < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError(name + " never reached " + expected);
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static class PrefixEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "enc:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    private static class BlockingEncoder extends PrefixEncoder {
+
+        private final CountDownLatch release;
+
+        BlockingEncoder(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return super.encode(rawPassword);
+        }
+    }
+}
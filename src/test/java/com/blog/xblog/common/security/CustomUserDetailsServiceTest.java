@@ -0,0 +1,92 @@
+package com.blog.xblog.common.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.blog.xblog.user.entity.UserEntity;
+import com.blog.xblog.user.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager("principals");
+        userDetailsService = new CustomUserDetailsService(userRepository, cacheManager);
+    }
+
+    @Nested
+    @DisplayName("loadPrincipal")
+    class LoadPrincipal {
+
+        @Test
+        @DisplayName("looks the user up once and serves later requests from the cache, without the password")
+        void cachesPrincipal() {
+            when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user(1L, "alice")));
+
+            CustomUserDetails first = userDetailsService.loadPrincipal("alice");
+            CustomUserDetails second = userDetailsService.loadPrincipal("alice");
+
+            assertThat(second).isSameAs(first);
+            assertThat(first.getId()).isEqualTo(1L);
+            assertThat(first.getPassword()).isNull();
+            verify(userRepository, times(1)).findByUsername("alice");
+        }
+
+        @Test
+        @DisplayName("after eviction resolves a reused username to its new owner")
+        void reloadsAfterEviction() {
+            when(userRepository.findByUsername("alice"))
+                    .thenReturn(Optional.of(user(1L, "alice")))
+                    .thenReturn(Optional.of(user(2L, "alice")));
+
+            assertThat(userDetailsService.loadPrincipal("alice").getId()).isEqualTo(1L);
+            cacheManager.getCache("principals").evict("alice");
+
+            assertThat(userDetailsService.loadPrincipal("alice").getId()).isEqualTo(2L);
+        }
+
+        @Test
+        @DisplayName("does not cache unknown usernames")
+        void doesNotCacheMisses() {
+            when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> userDetailsService.loadPrincipal("ghost"))
+                    .isInstanceOf(UsernameNotFoundException.class);
+            assertThat(cacheManager.getCache("principals").get("ghost")).isNull();
+        }
+    }
+
+    private static UserEntity user(Long id, String username) {
+        return UserEntity.builder()
+                .id(id)
+                .username(username)
+                .password("encoded")
+                .email(username + "@example.com")
+                .createdAt(Instant.EPOCH)
+                .updatedAt(Instant.EPOCH)
+                .build();
+    }
+}
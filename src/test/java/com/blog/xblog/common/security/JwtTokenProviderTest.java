@@ -0,0 +1,149 @@
+package com.blog.xblog.common.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import io.jsonwebtoken.Claims;
+
+class JwtTokenProviderTest {
+
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = provider(JwtAlgorithm.RS256, 60_000L);
+    }
+
+    @Nested
+    @DisplayName("verify")
+    class Verify {
+
+        @Test
+        @DisplayName("returns claims with the subject for a valid token")
+        void returnsClaimsForValidToken() {
+            String token = tokenProvider.generateToken(authentication("alice"));
+
+            assertThat(tokenProvider.verify(token))
+                    .map(Claims::getSubject)
+                    .contains("alice");
+        }
+
+        @Test
+        @DisplayName("serves a repeated token from the verified-token cache")
+        void repeatedToken_servedFromCache() {
+            String token = tokenProvider.generateToken(authentication("alice"));
+
+            Claims first = tokenProvider.verify(token).orElseThrow();
+            Claims second = tokenProvider.verify(token).orElseThrow();
+
+            assertThat(second).isSameAs(first);
+        }
+
+        @Test
+        @DisplayName("returns empty for a tampered token")
+        void tamperedToken_returnsEmpty() {
+            String token = tokenProvider.generateToken(authentication("alice"));
+            String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+            assertThat(tokenProvider.verify(tampered)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("returns empty for a token signed with another key")
+        void foreignToken_returnsEmpty() {
+            JwtTokenProvider other = provider(JwtAlgorithm.RS256, 60_000L);
+            String token = other.generateToken(authentication("alice"));
+
+            assertThat(tokenProvider.verify(token)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("returns empty for an expired token")
+        void expiredToken_returnsEmpty() {
+            JwtTokenProvider expiring = provider(JwtAlgorithm.RS256, -1_000L);
+            String token = expiring.generateToken(authentication("alice"));
+
+            assertThat(expiring.verify(token)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("returns empty for blank or malformed input")
+        void malformedToken_returnsEmpty() {
+            assertThat(tokenProvider.verify("")).isEmpty();
+            assertThat(tokenProvider.verify("not-a-jwt")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("signing algorithms and key rotation")
+    class KeysAndAlgorithms {
+
+        @ParameterizedTest
+        @EnumSource(JwtAlgorithm.class)
+        @DisplayName("issues and verifies tokens with each algorithm")
+        void roundTripsEachAlgorithm(JwtAlgorithm algorithm) {
+            JwtTokenProvider provider = provider(algorithm, 60_000L);
+            String token = provider.generateToken(authentication("alice"));
+
+            assertThat(provider.verify(token)).map(Claims::getSubject).contains("alice");
+        }
+
+        @ParameterizedTest
+        @EnumSource(JwtAlgorithm.class)
+        @DisplayName("loads a configured key pair for each algorithm")
+        void loadsConfiguredKeys(JwtAlgorithm algorithm) throws Exception {
+            KeyPair pair = algorithm.generateKeyPair();
+            JwtTokenProvider issuer = new JwtTokenProvider(properties(algorithm, pair, "k1", List.of()));
+            JwtTokenProvider verifier = new JwtTokenProvider(properties(algorithm, pair, "k1", List.of()));
+
+            String token = issuer.generateToken(authentication("alice"));
+
+            assertThat(verifier.verify(token)).map(Claims::getSubject).contains("alice");
+        }
+
+        @Test
+        @DisplayName("accepts tokens signed by a retired key listed for verification")
+        void rotatedKey_stillVerifies() throws Exception {
+            KeyPair oldPair = JwtAlgorithm.RS256.generateKeyPair();
+            KeyPair newPair = JwtAlgorithm.EdDSA.generateKeyPair();
+            JwtTokenProvider oldProvider = new JwtTokenProvider(properties(JwtAlgorithm.RS256, oldPair, "2025-01", List.of()));
+            JwtTokenProvider newProvider = new JwtTokenProvider(properties(JwtAlgorithm.EdDSA, newPair, "2026-01",
+                    List.of("2025-01:" + encode(oldPair.getPublic().getEncoded()))));
+
+            String oldToken = oldProvider.generateToken(authentication("alice"));
+            String newToken = newProvider.generateToken(authentication("bob"));
+
+            assertThat(newProvider.verify(oldToken)).map(Claims::getSubject).contains("alice");
+            assertThat(newProvider.verify(newToken)).map(Claims::getSubject).contains("bob");
+            assertThat(oldProvider.verify(newToken)).isEmpty();
+        }
+    }
+
+    private static JwtTokenProvider provider(JwtAlgorithm algorithm, long validityMs) {
+        return new JwtTokenProvider(new JwtProperties(null, null, algorithm, null, null, validityMs, 100L));
+    }
+
+    private static JwtProperties properties(JwtAlgorithm algorithm, KeyPair pair, String keyId, List<String> additionalKeys) {
+        return new JwtProperties(encode(pair.getPrivate().getEncoded()), encode(pair.getPublic().getEncoded()),
+                algorithm, keyId, additionalKeys, 60_000L, 100L);
+    }
+
+    private static String encode(byte[] der) {
+        return Base64.getEncoder().encodeToString(der);
+    }
+
+    private static UsernamePasswordAuthenticationToken authentication(String username) {
+        return new UsernamePasswordAuthenticationToken(new CustomUserDetails(1L, username, null), null);
+    }
+}
@@ -0,0 +1,121 @@
+package com.blog.xblog.common.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.blog.xblog.common.exception.BadRequestException;
+
+class FileStorageServiceTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 16};
+
+    @TempDir
+    Path uploadDir;
+
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = new FileStorageService(uploadDir.toString(), new LocalStorageBackend(uploadDir));
+    }
+
+    @Nested
+    @DisplayName("stage")
+    class Stage {
+
+        @Test
+        @DisplayName("writes and hashes the stream in one pass, typing it by its magic bytes")
+        void stagesAndHashes() throws Exception {
+            StagedUpload upload = fileStorageService.stage(new ByteArrayInputStream(PNG));
+
+            assertThat(upload.contentType()).isEqualTo("image/png");
+            assertThat(upload.extension()).isEqualTo("png");
+            assertThat(upload.size()).isEqualTo(PNG.length);
+            assertThat(upload.sha256()).isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(PNG)));
+            assertThat(Files.readAllBytes(upload.tempFile())).isEqualTo(PNG);
+        }
+
+        @Test
+        @DisplayName("ignores the declared content type of a multipart upload")
+        void trustsBytesOverDeclaredType() {
+            StagedUpload upload = fileStorageService.stage(new MockMultipartFile("image", "x.png", "image/png", JPEG));
+
+            assertThat(upload.contentType()).isEqualTo("image/jpeg");
+            assertThat(upload.extension()).isEqualTo("jpg");
+        }
+
+        @Test
+        @DisplayName("rejects content that is not JPEG or PNG before writing anything")
+        void rejectsUnknownFormat() throws IOException {
+            MockMultipartFile file = new MockMultipartFile("image", "x.jpg", "image/jpeg", "<svg/>".getBytes());
+
+            assertThatThrownBy(() -> fileStorageService.stage(file))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("JPEG and PNG");
+            assertNoFilesLeft();
+        }
+
+        @Test
+        @DisplayName("stops reading once the stream passes 5MB and removes the partial file")
+        void enforcesSizeCapWhileStreaming() throws IOException {
+            InputStream oversized = new InputStream() {
+                private long remaining = 6L * 1024 * 1024;
+                private int index;
+
+                @Override
+                public int read() {
+                    if (remaining-- <= 0) {
+                        return -1;
+                    }
+                    return index < JPEG.length ? JPEG[index++] & 0xFF : 0;
+                }
+            };
+
+            assertThatThrownBy(() -> fileStorageService.stage(oversized))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("5MB");
+            assertNoFilesLeft();
+        }
+
+        @Test
+        @DisplayName("returns null for an empty multipart file")
+        void returnsNullForEmptyFile() {
+            assertThat(fileStorageService.stage(new MockMultipartFile("image", new byte[0]))).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("publish renames the staged file to its content address")
+    void publishMovesToContentAddress() {
+        StagedUpload upload = fileStorageService.stage(new ByteArrayInputStream(JPEG));
+
+        String path = fileStorageService.publish(upload);
+
+        assertThat(path).isEqualTo(upload.relativePath());
+        assertThat(uploadDir.resolve(path)).exists();
+        assertThat(upload.tempFile()).doesNotExist();
+    }
+
+    private void assertNoFilesLeft() throws IOException {
+        try (Stream<Path> files = Files.walk(uploadDir)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+}
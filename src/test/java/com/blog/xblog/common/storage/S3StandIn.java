@@ -0,0 +1,152 @@
+package com.blog.xblog.common.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A minimal in-process S3-compatible server for tests: path-style objects and multipart uploads.
+ * It checks that requests are signed (header or presigned query) but does not verify signatures.
+ */
+final class S3StandIn implements AutoCloseable {
+
+    record StoredObject(byte[] bytes, String contentType) {}
+
+    private static final Pattern PART = Pattern.compile("<PartNumber>(\\d+)</PartNumber><ETag>([^<]+)</ETag>");
+
+    final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+    final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+    final AtomicInteger partRequests = new AtomicInteger();
+
+    private final HttpServer server;
+    private final String bucket;
+
+    S3StandIn(String bucket) throws IOException {
+        this.bucket = bucket;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+
+    URI endpoint() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            URI uri = exchange.getRequestURI();
+            Map<String, String> query = query(uri.getRawQuery());
+            String auth = exchange.getRequestHeaders().getFirst("Authorization");
+            if ((auth == null || !auth.startsWith("AWS4-HMAC-SHA256 Credential=")) && !query.containsKey("X-Amz-Signature")) {
+                respond(exchange, 403, "<Error><Code>AccessDenied</Code></Error>");
+                return;
+            }
+            String prefix = "/" + bucket + "/";
+            if (!uri.getRawPath().startsWith(prefix)) {
+                respond(exchange, 404, "<Error><Code>NoSuchBucket</Code></Error>");
+                return;
+            }
+            String key = uri.getPath().substring(prefix.length());
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> {
+                    if (query.containsKey("partNumber")) {
+                        partRequests.incrementAndGet();
+                        uploads.get(query.get("uploadId")).put(Integer.parseInt(query.get("partNumber")), body);
+                        exchange.getResponseHeaders().add("ETag", "\"part-" + query.get("partNumber") + "\"");
+                    } else {
+                        objects.put(key, new StoredObject(body, exchange.getRequestHeaders().getFirst("Content-Type")));
+                    }
+                    respond(exchange, 200, null);
+                }
+                case "POST" -> {
+                    if (query.containsKey("uploads")) {
+                        String uploadId = UUID.randomUUID().toString();
+                        uploads.put(uploadId, new ConcurrentHashMap<>());
+                        respond(exchange, 200, "<InitiateMultipartUploadResult><UploadId>" + uploadId
+                                + "</UploadId></InitiateMultipartUploadResult>");
+                    } else {
+                        Map<Integer, byte[]> parts = uploads.remove(query.get("uploadId"));
+                        Matcher matcher = PART.matcher(new String(body, StandardCharsets.UTF_8));
+                        ByteArrayOutputStream assembled = new ByteArrayOutputStream();
+                        while (matcher.find()) {
+                            assembled.write(parts.get(Integer.parseInt(matcher.group(1))));
+                        }
+                        objects.put(key, new StoredObject(assembled.toByteArray(), null));
+                        respond(exchange, 200, "<CompleteMultipartUploadResult/>");
+                    }
+                }
+                case "HEAD", "GET" -> {
+                    StoredObject object = objects.get(key);
+                    if (object == null) {
+                        respond(exchange, 404, null);
+                    } else if (exchange.getRequestMethod().equals("HEAD")) {
+                        exchange.sendResponseHeaders(200, -1);
+                    } else {
+                        exchange.sendResponseHeaders(200, object.bytes().length);
+                        exchange.getResponseBody().write(object.bytes());
+                    }
+                }
+                case "DELETE" -> {
+                    if (query.containsKey("uploadId")) {
+                        uploads.remove(query.get("uploadId"));
+                    } else {
+                        objects.remove(key);
+                    }
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> respond(exchange, 405, null);
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int eq = pair.indexOf('=');
+                params.put(eq < 0 ? pair : pair.substring(0, eq),
+                        eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+}
@@ -0,0 +1,147 @@
+package com.blog.xblog.common.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class S3StorageBackendTest {
+
+    private static final String KEY = "media/ab/abc.jpg";
+
+    @TempDir
+    Path tempDir;
+
+    private S3StandIn standIn;
+    private S3StorageBackend backend;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        standIn = new S3StandIn("images");
+        backend = new S3StorageBackend(standIn.endpoint(), "images", true,
+                new S3RequestSigner("access", "secret", "us-east-1"), 64 * 1024, 16 * 1024, 3, Duration.ofMinutes(15));
+    }
+
+    @AfterEach
+    void tearDown() {
+        backend.close();
+        standIn.close();
+    }
+
+    @Test
+    @DisplayName("puts small files in a single request with their content type")
+    void putsSingleObject() throws IOException {
+        byte[] bytes = randomBytes(1000);
+
+        backend.put(KEY, write(bytes), "image/jpeg");
+
+        assertThat(standIn.objects.get(KEY).bytes()).isEqualTo(bytes);
+        assertThat(standIn.objects.get(KEY).contentType()).isEqualTo("image/jpeg");
+        assertThat(standIn.partRequests).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("uploads files above the threshold as parts and reassembles them in order")
+    void putsMultipart() throws IOException {
+        byte[] bytes = randomBytes(100 * 1024 + 7);
+
+        backend.put(KEY, write(bytes), "image/png");
+
+        assertThat(standIn.objects.get(KEY).bytes()).isEqualTo(bytes);
+        assertThat(standIn.partRequests).hasValue(7);
+        assertThat(standIn.uploads).isEmpty();
+    }
+
+    @Test
+    @DisplayName("reads, checks and deletes objects")
+    void readsAndDeletes() throws IOException {
+        byte[] bytes = randomBytes(500);
+        backend.put(KEY, write(bytes), "image/jpeg");
+
+        assertThat(backend.exists(KEY)).isTrue();
+        try (InputStream in = backend.open(KEY)) {
+            assertThat(in.readAllBytes()).isEqualTo(bytes);
+        }
+
+        backend.delete(KEY);
+        backend.delete(KEY);
+
+        assertThat(backend.exists(KEY)).isFalse();
+        assertThatThrownBy(() -> backend.open(KEY)).isInstanceOf(NoSuchFileException.class);
+        assertThat(backend.localPath(KEY)).isNull();
+    }
+
+    @Test
+    @DisplayName("hands out presigned URLs that fetch the object without credentials")
+    void presignsGetUrls() throws Exception {
+        byte[] bytes = randomBytes(300);
+        backend.put(KEY, write(bytes), "image/jpeg");
+
+        URI url = backend.presignedGetUrl(KEY);
+
+        assertThat(url.getRawPath()).isEqualTo("/images/" + KEY);
+        assertThat(url.getRawQuery()).contains("X-Amz-Expires=900", "X-Amz-Signature=");
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(url).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.body()).isEqualTo(bytes);
+        }
+    }
+
+    @Test
+    @DisplayName("backs FileStorageService: publish uploads, variants are built from a download, images redirect")
+    void backsFileStorageService() throws IOException {
+        FileStorageService storage = new FileStorageService(tempDir.resolve("staging").toString(), backend);
+        BufferedImage image = new BufferedImage(800, 400, BufferedImage.TYPE_INT_RGB);
+        Path source = tempDir.resolve("source.jpg");
+        ImageIO.write(image, "jpeg", source.toFile());
+
+        StagedUpload upload;
+        try (InputStream in = Files.newInputStream(source)) {
+            upload = storage.stage(in);
+        }
+        String key = storage.publish(upload);
+
+        assertThat(standIn.objects).containsKey(key);
+        assertThat(upload.tempFile()).doesNotExist();
+        assertThat(storage.createVariant(key, ImageVariant.THUMBNAIL)).isTrue();
+        assertThat(standIn.objects.get(ImageVariant.THUMBNAIL.pathFor(key)).contentType()).isEqualTo("image/jpeg");
+        StoredImage stored = storage.getImage(key, "image/jpeg");
+        assertThat(stored.path()).isNull();
+        assertThat(stored.redirect().getRawPath()).isEqualTo("/images/" + key);
+        try (Stream<Path> files = Files.list(tempDir.resolve("staging/.tmp"))) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private Path write(byte[] bytes) throws IOException {
+        return Files.write(Files.createTempFile(tempDir, "src", ".bin"), bytes);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,66 @@
+package com.blog.xblog.common.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * {@link SlugUtil#toSlug} against the previous two-{@code replaceAll} implementation, kept here
+ * as {@link #legacyToSlug}. Run with {@link #main} (see README, Benchmarks).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SlugUtilBenchmark {
+
+    @Param({
+            "Weekly Update: What Shipped This Sprint",
+            "Crème brûlée, déjà vu & the naïve café",
+            "Привет мир: заметки о производительности"
+    })
+    public String title;
+
+    @Benchmark
+    public String toSlug() {
+        return SlugUtil.toSlug(title);
+    }
+
+    @Benchmark
+    public String legacy() {
+        return legacyToSlug(title);
+    }
+
+    static String legacyToSlug(String input) {
+        if (input == null) {
+            return "";
+        }
+        String slug = input
+                .trim()
+                .toLowerCase()
+                .replaceAll("[^a-z0-9\\s-]", "")
+                .replaceAll("\\s+", "-");
+        return slug.isEmpty() ? "post" : slug;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SlugUtilBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
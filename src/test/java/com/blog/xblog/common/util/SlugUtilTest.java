@@ -0,0 +1,66 @@
+package com.blog.xblog.common.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class SlugUtilTest {
+
+    @Nested
+    @DisplayName("toSlug")
+    class ToSlug {
+
+        @ParameterizedTest(name = "\"{0}\" -> {1}")
+        @CsvSource(delimiter = '|', value = {
+                "Hello World|hello-world",
+                "  Trim   me  |trim-me",
+                "Hello, World!|hello-world",
+                "don't stop|dont-stop",
+                "a - b__c|a-b-c",
+                "Version 2.0 Released|version-20-released",
+                "Crème Brûlée à la carte|creme-brulee-a-la-carte",
+                "Straße & Œuvre|strasse-oeuvre",
+                "Привет мир|privet-mir",
+                "Щука и ёж|shchuka-i-ezh",
+                "Καλημέρα κόσμε|kalimera-kosme",
+                "ﬁnal ①|final-1"
+        })
+        void slugifies(String input, String expected) {
+            assertThat(SlugUtil.toSlug(input)).isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("falls back to \"post\" when nothing usable remains")
+        void fallsBackWhenEmpty() {
+            assertThat(SlugUtil.toSlug("日本語のタイトル")).isEqualTo("post");
+            assertThat(SlugUtil.toSlug("!!! ???")).isEqualTo("post");
+        }
+
+        @Test
+        @DisplayName("returns empty string for null")
+        void nullInput() {
+            assertThat(SlugUtil.toSlug(null)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("truncates long titles at a word boundary within the max length")
+        void truncatesAtWordBoundary() {
+            String title = "word ".repeat(40);
+
+            String slug = SlugUtil.toSlug(title);
+
+            assertThat(slug).hasSizeLessThanOrEqualTo(SlugUtil.MAX_LENGTH).doesNotEndWith("-");
+            assertThat(slug).isEqualTo("word-".repeat(15) + "word");
+        }
+
+        @Test
+        @DisplayName("hard-cuts a single overlong word at the max length")
+        void truncatesSingleWord() {
+            assertThat(SlugUtil.toSlug("x".repeat(200))).hasSize(SlugUtil.MAX_LENGTH);
+        }
+    }
+}
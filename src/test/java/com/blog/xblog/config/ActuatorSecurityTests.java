@@ -0,0 +1,56 @@
+package com.blog.xblog.config;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,metrics")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ActuatorSecurityTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void healthIsPublic() throws Exception {
+		// DOWN or UP depends on whether Redis is reachable; either way the status is served
+		mockMvc.perform(get("/actuator/health").with(from("203.0.113.5")))
+				.andExpect(jsonPath("$.status").exists());
+	}
+
+	@Test
+	void metricsAreRefusedToSignedInUsersOutsideOperatorAddresses() throws Exception {
+		mockMvc.perform(get("/actuator/metrics").with(from("203.0.113.5")).with(user("alice")))
+				.andExpect(status().isForbidden())
+				.andExpect(jsonPath("$.message").value("Access denied"));
+	}
+
+	@Test
+	void metricsAreServedToOperatorAddresses() throws Exception {
+		mockMvc.perform(get("/actuator/metrics").with(from("127.0.0.1")))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void unexposedEndpointsAreNotFoundForOperatorAddresses() throws Exception {
+		mockMvc.perform(get("/actuator/env").with(from("127.0.0.1")))
+				.andExpect(status().isNotFound());
+	}
+
+	private static RequestPostProcessor from(String address) {
+		return request -> {
+			request.setRemoteAddr(address);
+			return request;
+		};
+	}
+}
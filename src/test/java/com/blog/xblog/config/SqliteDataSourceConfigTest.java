@@ -0,0 +1,129 @@
+package com.blog.xblog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+class SqliteDataSourceConfigTest {
+
+    @TempDir
+    Path dir;
+
+    private HikariDataSource writePool;
+    private HikariDataSource readPool;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        SqliteProperties properties = new SqliteProperties("WAL", "NORMAL", Duration.ofSeconds(2),
+                DataSize.ofMegabytes(64), DataSize.ofMegabytes(8), 2, Duration.ofSeconds(1));
+        String url = "jdbc:sqlite:" + dir.resolve("test.db");
+        SqliteDataSourceConfig config = new SqliteDataSourceConfig();
+        writePool = config.sqliteWriteDataSource(url, properties);
+        readPool = config.sqliteReadDataSource(url, properties, writePool);
+        dataSource = config.dataSource(writePool, readPool);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table t (v integer)");
+            statement.execute("insert into t values (1)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        readPool.close();
+        writePool.close();
+    }
+
+    @Test
+    @DisplayName("applies WAL and the tuned pragmas")
+    void appliesPragmas() throws SQLException {
+        try (Connection connection = writePool.getConnection()) {
+            assertThat(pragma(connection, "journal_mode")).isEqualTo("wal");
+            assertThat(pragma(connection, "synchronous")).isEqualTo("1");
+            assertThat(pragma(connection, "busy_timeout")).isEqualTo("2000");
+            assertThat(pragma(connection, "mmap_size")).isEqualTo(Long.toString(64L * 1024 * 1024));
+            assertThat(pragma(connection, "cache_size")).isEqualTo("-8192");
+        }
+    }
+
+    @Test
+    @DisplayName("routes read-only connections to the read pool, which cannot write")
+    void routesReadOnlyToReadPool() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            try (Statement statement = connection.createStatement()) {
+                assertThat(count(statement)).isEqualTo(1);
+                assertThatThrownBy(() -> statement.execute("insert into t values (2)"))
+                        .isInstanceOf(SQLException.class)
+                        .hasMessageContaining("readonly");
+            }
+            assertThat(readPool.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            assertThat(writePool.getHikariPoolMXBean().getActiveConnections()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("lets readers run while a write transaction is open")
+    void readsDuringWrite() throws SQLException {
+        try (Connection writer = dataSource.getConnection()) {
+            writer.setAutoCommit(false);
+            try (Statement statement = writer.createStatement()) {
+                statement.execute("insert into t values (2)");
+            }
+
+            try (Connection reader = dataSource.getConnection()) {
+                reader.setReadOnly(true);
+                try (Statement statement = reader.createStatement()) {
+                    assertThat(count(statement)).isEqualTo(1);
+                }
+            }
+            writer.commit();
+        }
+    }
+
+    @Test
+    @DisplayName("queues a second writer for the single write connection")
+    void singleWriteConnection() throws SQLException {
+        try (Connection first = dataSource.getConnection(); Statement statement = first.createStatement()) {
+            statement.execute("insert into t values (3)");
+
+            assertThatThrownBy(() -> {
+                try (Connection second = dataSource.getConnection(); Statement other = second.createStatement()) {
+                    other.execute("insert into t values (4)");
+                }
+            }).isInstanceOf(SQLException.class).hasMessageContaining("sqlite-write");
+        }
+    }
+
+    private static String pragma(Connection connection, String name) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("pragma " + name)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private static int count(Statement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("select count(*) from t")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.blog.xblog.media.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.blog.xblog.common.exception.GlobalExceptionHandler;
+import com.blog.xblog.common.storage.FileStorageService;
+import com.blog.xblog.common.storage.LocalStorageBackend;
+import com.blog.xblog.media.repository.MediaObjectRepository;
+import com.blog.xblog.media.service.MediaService;
+
+@ExtendWith(MockitoExtension.class)
+class MediaControllerTest {
+
+    private static final String HASH = "ab" + "1".repeat(62);
+
+    @TempDir
+    Path uploadDir;
+
+    @Mock
+    private MediaObjectRepository mediaObjectRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageService fileStorageService = new FileStorageService(uploadDir.toString(), new LocalStorageBackend(uploadDir));
+        MediaController controller = new MediaController(
+                new MediaService(mediaObjectRepository, fileStorageService, transactionManager, Duration.ZERO, Duration.ZERO),
+                fileStorageService);
+        mockMvc = standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @DisplayName("serves stored media with immutable caching and a type from its extension")
+    void servesImmutableMedia() throws Exception {
+        Path file = uploadDir.resolve("media/ab/" + HASH + "-thumbnail.png");
+        Files.createDirectories(file.getParent());
+        Files.write(file, "png-bytes".getBytes());
+
+        mockMvc.perform(get("/api/media/" + HASH + "-thumbnail.png"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.IMAGE_PNG_VALUE))
+                .andExpect(header().string("Cache-Control", MediaController.IMMUTABLE))
+                .andExpect(content().bytes("png-bytes".getBytes()));
+    }
+
+    @Test
+    @DisplayName("returns 404 for a missing file")
+    void returns404WhenMissing() throws Exception {
+        mockMvc.perform(get("/api/media/" + HASH + ".jpg"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("returns 404 for a name that is not a content address")
+    void returns404ForInvalidName() throws Exception {
+        mockMvc.perform(get("/api/media/avatar.jpg"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,232 @@
+package com.blog.xblog.media.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.blog.xblog.common.exception.NotFoundException;
+import com.blog.xblog.common.storage.FileStorageService;
+import com.blog.xblog.common.storage.LocalStorageBackend;
+import com.blog.xblog.common.storage.StorageBackend;
+import com.blog.xblog.media.entity.MediaObjectEntity;
+import com.blog.xblog.media.repository.MediaObjectRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MediaServiceTest {
+
+    private static final byte[] BYTES = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 1, 2, 3};
+
+    @TempDir
+    Path uploadDir;
+
+    @Mock
+    private MediaObjectRepository mediaObjectRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FileStorageService fileStorageService;
+    private MediaService mediaService;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = new FileStorageService(uploadDir.toString(), new LocalStorageBackend(uploadDir));
+        mediaService = new MediaService(mediaObjectRepository, fileStorageService, transactionManager,
+                Duration.ofMinutes(10), Duration.ZERO);
+    }
+
+    @Nested
+    @DisplayName("store")
+    class Store {
+
+        @Test
+        @DisplayName("stores the upload under its SHA-256 and takes a reference")
+        void storesAtContentAddress() throws Exception {
+            String hash = sha256(BYTES);
+
+            String path = store(BYTES);
+
+            assertThat(path).isEqualTo("media/" + hash.substring(0, 2) + "/" + hash + ".jpg");
+            assertThat(Files.readAllBytes(uploadDir.resolve(path))).isEqualTo(BYTES);
+            verify(mediaObjectRepository).acquire(hash, path, "image/jpeg", BYTES.length);
+        }
+
+        @Test
+        @DisplayName("stores identical uploads once, with one reference each")
+        void deduplicatesIdenticalUploads() throws Exception {
+            String first = store(BYTES);
+            String second = store(BYTES);
+
+            assertThat(second).isEqualTo(first);
+            verify(mediaObjectRepository, times(2)).acquire(eq(sha256(BYTES)), eq(first), eq("image/jpeg"), anyLong());
+            try (Stream<Path> files = Files.walk(uploadDir)) {
+                assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+            }
+        }
+
+        @Test
+        @DisplayName("leaves no temporary file behind when the reference cannot be taken")
+        void discardsStagedFileOnFailure() throws IOException {
+            when(mediaObjectRepository.acquire(anyString(), anyString(), anyString(), anyLong()))
+                    .thenThrow(new IllegalStateException("db down"));
+
+            assertThatThrownBy(() -> store(BYTES))
+                    .isInstanceOf(IllegalStateException.class);
+            try (Stream<Path> files = Files.walk(uploadDir)) {
+                assertThat(files.filter(Files::isRegularFile)).isEmpty();
+            }
+        }
+
+        @Test
+        @DisplayName("drops the reference again when the file cannot be published")
+        void dropsReferenceWhenPublishFails() throws Exception {
+            StorageBackend backend = mock(StorageBackend.class);
+            doThrow(new IOException("bucket unavailable")).when(backend).put(anyString(), any(), anyString());
+            FileStorageService failingStorage = new FileStorageService(uploadDir.toString(), backend);
+            MediaService service = new MediaService(mediaObjectRepository, failingStorage, transactionManager,
+                    Duration.ofMinutes(10), Duration.ZERO);
+
+            assertThatThrownBy(() -> service.store(failingStorage.stage(new ByteArrayInputStream(BYTES))))
+                    .isInstanceOf(IllegalStateException.class);
+            verify(mediaObjectRepository).acquire(eq(sha256(BYTES)), anyString(), eq("image/jpeg"), anyLong());
+            verify(mediaObjectRepository).release(eq(sha256(BYTES)), any());
+            try (Stream<Path> files = Files.walk(uploadDir)) {
+                assertThat(files.filter(Files::isRegularFile)).isEmpty();
+            }
+        }
+
+        @Test
+        @DisplayName("returns null without an upload")
+        void returnsNullWithoutFile() {
+            assertThat(mediaService.store(null)).isNull();
+            verify(mediaObjectRepository, never()).acquire(any(), any(), any(), anyLong());
+        }
+    }
+
+    @Nested
+    @DisplayName("release")
+    class Release {
+
+        @Test
+        @DisplayName("drops the reference but leaves the file for the sweep")
+        void leavesFileForSweep() throws Exception {
+            String path = store(BYTES);
+
+            mediaService.release(path);
+
+            verify(mediaObjectRepository).release(eq(sha256(BYTES)), any());
+            assertThat(uploadDir.resolve(path)).exists();
+        }
+
+        @Test
+        @DisplayName("deletes per-post files from before content addressing outright")
+        void deletesLegacyFile() throws IOException {
+            Path legacy = uploadDir.resolve("posts/1/x.jpg");
+            Files.createDirectories(legacy.getParent());
+            Files.write(legacy, BYTES);
+
+            mediaService.release("posts/1/x.jpg");
+
+            assertThat(legacy).doesNotExist();
+            verify(mediaObjectRepository, never()).release(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("sweepReleased")
+    class SweepReleased {
+
+        @Test
+        @DisplayName("deletes the file, its variants and the tombstone once the grace period has passed")
+        void deletesExpiredTombstone() throws Exception {
+            String path = store(BYTES);
+            Path thumbnail = Files.write(uploadDir.resolve(path.replace(".jpg", "-thumbnail.jpg")), BYTES);
+            MediaObjectEntity tombstone = tombstone(path, Instant.now().minus(Duration.ofHours(1)));
+            when(mediaObjectRepository.findReleasedBefore(any(), any())).thenReturn(List.of(tombstone));
+            when(mediaObjectRepository.findByHashForUpdate(tombstone.getHash())).thenReturn(Optional.of(tombstone));
+
+            assertThat(mediaService.sweepReleased()).isEqualTo(1);
+
+            assertThat(uploadDir.resolve(path)).doesNotExist();
+            assertThat(thumbnail).doesNotExist();
+            verify(mediaObjectRepository).delete(tombstone);
+        }
+
+        @Test
+        @DisplayName("keeps a file whose row was re-acquired after it was listed")
+        void keepsReacquiredFile() throws Exception {
+            String path = store(BYTES);
+            MediaObjectEntity listed = tombstone(path, Instant.now().minus(Duration.ofHours(1)));
+            MediaObjectEntity revived = tombstone(path, null);
+            revived.setRefCount(1);
+            when(mediaObjectRepository.findReleasedBefore(any(), any())).thenReturn(List.of(listed));
+            when(mediaObjectRepository.findByHashForUpdate(listed.getHash())).thenReturn(Optional.of(revived));
+
+            assertThat(mediaService.sweepReleased()).isZero();
+
+            assertThat(uploadDir.resolve(path)).exists();
+            verify(mediaObjectRepository, never()).delete(any());
+        }
+
+        private MediaObjectEntity tombstone(String path, Instant releasedAt) throws NoSuchAlgorithmException {
+            return MediaObjectEntity.builder()
+                    .hash(sha256(BYTES))
+                    .relativePath(path)
+                    .contentType("image/jpeg")
+                    .sizeBytes(BYTES.length)
+                    .refCount(0)
+                    .releasedAt(releasedAt)
+                    .build();
+        }
+    }
+
+    @Test
+    @DisplayName("resolveName maps media names to storage paths and rejects anything else")
+    void resolvesMediaNames() {
+        String hash = "ab" + "0".repeat(62);
+
+        assertThat(mediaService.resolveName(hash + "-thumbnail.png")).isEqualTo("media/ab/" + hash + "-thumbnail.png");
+        assertThatThrownBy(() -> mediaService.resolveName("../" + hash + ".jpg")).isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> mediaService.resolveName(hash + ".gif")).isInstanceOf(NotFoundException.class);
+    }
+
+    private String store(byte[] bytes) {
+        return mediaService.store(fileStorageService.stage(new ByteArrayInputStream(bytes)));
+    }
+
+    private static String sha256(byte[] bytes) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+}
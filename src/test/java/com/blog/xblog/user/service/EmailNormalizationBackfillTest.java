@@ -0,0 +1,100 @@
+package com.blog.xblog.user.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.blog.xblog.user.entity.UserEntity;
+import com.blog.xblog.user.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class EmailNormalizationBackfillTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmailNormalizationBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        backfill = new EmailNormalizationBackfill(userRepository, jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    @DisplayName("normalizes emails as signup does, including non-ASCII letters, then creates the unique index")
+    void normalizesLikeSignup() {
+        UserEntity user = legacyUser(1L, " ÉVA@Example.COM ");
+        when(userRepository.findByEmailNormalizedIsNull(any())).thenReturn(List.of(user));
+
+        backfill.run(new DefaultApplicationArguments());
+
+        assertThat(user.getEmailNormalized()).isEqualTo("éva@example.com");
+        verify(userRepository).saveAll(List.of(user));
+        verify(jdbcTemplate).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("keeps fetching batches until one comes back short")
+    void processesEveryBatch() {
+        List<UserEntity> fullBatch = new ArrayList<>();
+        for (long id = 0; id < EmailNormalizationBackfill.BATCH_SIZE; id++) {
+            fullBatch.add(legacyUser(id, "user" + id + "@example.com"));
+        }
+        when(userRepository.findByEmailNormalizedIsNull(any())).thenReturn(fullBatch, List.of());
+
+        backfill.run(new DefaultApplicationArguments());
+
+        verify(userRepository, times(2)).findByEmailNormalizedIsNull(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("fails startup when the unique index cannot be created")
+    void failsStartupOnDuplicates() {
+        when(userRepository.findByEmailNormalizedIsNull(any())).thenReturn(List.of());
+        doThrow(new DataIntegrityViolationException("UNIQUE constraint failed")).when(jdbcTemplate).execute(anyString());
+
+        assertThatThrownBy(() -> backfill.run(new DefaultApplicationArguments()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Resolve the duplicates");
+    }
+
+    private static UserEntity legacyUser(Long id, String email) {
+        UserEntity user = UserEntity.builder()
+                .id(id)
+                .username("user" + id)
+                .password("encoded")
+                .email(email)
+                .createdAt(Instant.EPOCH)
+                .updatedAt(Instant.EPOCH)
+                .build();
+        user.setEmailNormalized(null);
+        return user;
+    }
+}
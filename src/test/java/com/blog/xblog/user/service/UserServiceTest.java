@@ -2,11 +2,15 @@ package com.blog.xblog.user.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -16,13 +20,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.blog.xblog.common.exception.BadRequestException;
 import com.blog.xblog.common.exception.NotFoundException;
 import com.blog.xblog.user.dto.UserProfileResponse;
 import com.blog.xblog.user.dto.UserProfileUpdateRequest;
 import com.blog.xblog.user.entity.UserEntity;
+import com.blog.xblog.user.repository.UserIdentityView;
 import com.blog.xblog.user.repository.UserRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -83,7 +91,8 @@ class UserServiceTest {
             UserEntity otherUser = userEntity(2L, "bob", "bob@example.com");
 
             when(userRepository.findById(1L)).thenReturn(Optional.of(currentUser));
-            when(userRepository.findByUsername("bob")).thenReturn(Optional.of(otherUser));
+            when(userRepository.findIdentityConflicts("bob", "alice@example.com"))
+                    .thenReturn(List.of(identity(currentUser), identity(otherUser)));
 
             UserProfileUpdateRequest request = new UserProfileUpdateRequest("bob", "alice@example.com");
 
@@ -93,21 +102,80 @@ class UserServiceTest {
         }
 
         @Test
-        @DisplayName("when email already taken by another user throws BadRequestException")
+        @DisplayName("when email already taken by another user, ignoring case, throws BadRequestException")
         void whenEmailTaken_throwsBadRequest() {
             UserEntity currentUser = userEntity(1L, "alice", "alice@example.com");
             UserEntity otherUser = userEntity(2L, "bob", "bob@example.com");
 
             when(userRepository.findById(1L)).thenReturn(Optional.of(currentUser));
-            when(userRepository.findByUsername("alice")).thenReturn(Optional.of(currentUser));
-            when(userRepository.findByEmail("bob@example.com")).thenReturn(Optional.of(otherUser));
+            when(userRepository.findIdentityConflicts("alice", "bob@example.com"))
+                    .thenReturn(List.of(identity(currentUser), identity(otherUser)));
 
-            UserProfileUpdateRequest request = new UserProfileUpdateRequest("alice", "bob@example.com");
+            UserProfileUpdateRequest request = new UserProfileUpdateRequest("alice", "Bob@Example.com");
 
             assertThatThrownBy(() -> userService.updateProfile(1L, request))
                     .isInstanceOf(BadRequestException.class)
                     .hasMessageContaining("Email is already in use");
         }
+
+        @Test
+        @DisplayName("when username changes evicts the cached principal under the old username and clears cached posts")
+        void whenUsernameChanges_evictsPrincipalByOldUsername() {
+            UserEntity currentUser = userEntity(1L, "alice", "alice@example.com");
+            Cache principals = mock(Cache.class);
+            Cache posts = mock(Cache.class);
+            Cache postVersions = mock(Cache.class);
+
+            when(userRepository.findById(1L)).thenReturn(Optional.of(currentUser));
+            when(userRepository.findIdentityConflicts("alicia", "alice@example.com"))
+                    .thenReturn(List.of(identity(currentUser)));
+            when(userRepository.save(currentUser)).thenReturn(currentUser);
+            when(cacheManager.getCache("users")).thenReturn(null);
+            when(cacheManager.getCache("userProfiles")).thenReturn(null);
+            when(cacheManager.getCache("principals")).thenReturn(principals);
+            when(cacheManager.getCache("posts")).thenReturn(posts);
+            when(cacheManager.getCache("postVersions")).thenReturn(postVersions);
+
+            UserProfileResponse result = userService.updateProfile(1L,
+                    new UserProfileUpdateRequest("alicia", "alice@example.com"));
+
+            assertThat(result.username()).isEqualTo("alicia");
+            verify(principals).evict("alice");
+            verify(posts).clear();
+            verify(postVersions).clear();
+        }
+
+        @Test
+        @DisplayName("inside a transaction evicts the old principal only once the update commits")
+        void insideTransaction_evictsPrincipalAfterCommit() {
+            UserEntity currentUser = userEntity(1L, "alice", "alice@example.com");
+            Cache principals = mock(Cache.class);
+
+            when(userRepository.findById(1L)).thenReturn(Optional.of(currentUser));
+            when(userRepository.findIdentityConflicts("alicia", "alice@example.com"))
+                    .thenReturn(List.of(identity(currentUser)));
+            when(userRepository.save(currentUser)).thenReturn(currentUser);
+            when(cacheManager.getCache("users")).thenReturn(null);
+            when(cacheManager.getCache("userProfiles")).thenReturn(null);
+            when(cacheManager.getCache("principals")).thenReturn(principals);
+            when(cacheManager.getCache("posts")).thenReturn(null);
+            when(cacheManager.getCache("postVersions")).thenReturn(null);
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                userService.updateProfile(1L, new UserProfileUpdateRequest("alicia", "alice@example.com"));
+                verify(principals, never()).evict(any());
+
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+                verify(principals).evict("alice");
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+    }
+
+    private static UserIdentityView identity(UserEntity user) {
+        return new UserIdentityView(user.getId(), user.getUsername(), user.getEmailNormalized());
     }
 
     private static UserEntity userEntity(Long id, String username, String email) {